@@ -0,0 +1,41 @@
+package com.redhat.cloud.notifications.benchmarks;
+
+import com.redhat.cloud.notifications.ingress.ActionOut;
+import com.redhat.cloud.notifications.ingress.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActionOutValidateBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int events;
+
+    private ActionOut actionOut;
+
+    @Setup
+    public void setUp() {
+        actionOut = Actions.actionOut(Actions.action(events));
+    }
+
+    @Benchmark
+    public void validate() {
+        Parser.validate(actionOut);
+    }
+}
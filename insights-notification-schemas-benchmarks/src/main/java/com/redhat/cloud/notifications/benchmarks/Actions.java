@@ -0,0 +1,113 @@
+package com.redhat.cloud.notifications.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.cloud.notifications.ingress.Action;
+import com.redhat.cloud.notifications.ingress.ActionOut;
+import com.redhat.cloud.notifications.ingress.Application;
+import com.redhat.cloud.notifications.ingress.Bundle;
+import com.redhat.cloud.notifications.ingress.Context;
+import com.redhat.cloud.notifications.ingress.Event;
+import com.redhat.cloud.notifications.ingress.EventType;
+import com.redhat.cloud.notifications.ingress.Metadata;
+import com.redhat.cloud.notifications.ingress.Parser;
+import com.redhat.cloud.notifications.ingress.Payload;
+import com.redhat.cloud.notifications.ingress.Recipient;
+import com.redhat.cloud.notifications.ingress.Source;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Actions shaped like the ones sent by the applications, with a configurable number of events.
+ */
+final class Actions {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private Actions() {
+    }
+
+    static Action action(int events) {
+        List<Event> eventList = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            eventList.add(new Event.EventBuilder()
+                .withMetadata(new Metadata())
+                .withPayload(new Payload.PayloadBuilder()
+                    .withAdditionalProperty("advisory_id", 160818 + i)
+                    .withAdditionalProperty("advisory_name", "RHSA-2022:" + i)
+                    .withAdditionalProperty("synopsis", "Important: kernel security, bug fix, and enhancement update")
+                    .withAdditionalProperty("cves", List.of("CVE-2022-0001", "CVE-2022-0002"))
+                    .withAdditionalProperty("system", Map.of("display_name", "host-" + i, "tags", List.of()))
+                    .build())
+                .build());
+        }
+
+        return new Action.ActionBuilder()
+            .withId(UUID.fromString("f81d4fae-7dec-11d0-a765-00a0c91e6bf6"))
+            .withBundle("rhel")
+            .withApplication("patch")
+            .withEventType("new-advisory")
+            .withTimestamp(LocalDateTime.of(2022, 7, 5, 8, 47, 39, 806149000))
+            .withOrgId("6089719")
+            .withSeverity("Important")
+            .withContext(new Context.ContextBuilder()
+                .withAdditionalProperty("inventory_id", "e1e39f6d-2a0c-4b8e-8f1a-3c4b5d6e7f80")
+                .withAdditionalProperty("display_name", "host.example.com")
+                .build())
+            .withRecipients(List.of(new Recipient.RecipientBuilder()
+                .withOnlyAdmins(true)
+                .withUsers(List.of("user-1", "user-2"))
+                .build()))
+            .withEvents(eventList)
+            .build();
+    }
+
+    static ActionOut actionOut(Action action) {
+        return new ActionOut.ActionOutBuilder()
+            .withId(action.getId())
+            .withVersion(action.getVersion())
+            .withBundle(action.getBundle())
+            .withApplication(action.getApplication())
+            .withEventType(action.getEventType())
+            .withTimestamp(action.getTimestamp())
+            .withOrgId(action.getOrgId())
+            .withSeverity(action.getSeverity())
+            .withContext(action.getContext())
+            .withEvents(action.getEvents())
+            .withRecipients(action.getRecipients())
+            .withSource(new Source.SourceBuilder()
+                .withApplication(new Application.ApplicationBuilder().withDisplayName("Patch").build())
+                .withBundle(new Bundle.BundleBuilder().withDisplayName("Red Hat Enterprise Linux").build())
+                .withEventType(new EventType.EventTypeBuilder().withDisplayName("New advisory").build())
+                .build())
+            .build();
+    }
+
+    /**
+     * The json of the action, with context and events[].payload sent as objects or as json strings.
+     */
+    static String json(Action action, boolean stringEmbeddedJson) {
+        String json = Parser.encode(action);
+        if (!stringEmbeddedJson) {
+            return json;
+        }
+
+        try {
+            ObjectNode tree = (ObjectNode) OBJECT_MAPPER.readTree(json);
+            tree.put("context", tree.get("context").toString());
+            for (JsonNode event : tree.get("events")) {
+                ((ObjectNode) event).put("payload", event.get("payload").toString());
+            }
+            return OBJECT_MAPPER.writeValueAsString(tree);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
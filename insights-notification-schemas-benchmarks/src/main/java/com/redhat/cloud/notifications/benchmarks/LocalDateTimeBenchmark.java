@@ -0,0 +1,70 @@
+package com.redhat.cloud.notifications.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.redhat.cloud.notifications.jackson.LocalDateTimeModule;
+import com.redhat.cloud.notifications.validator.LocalDateTimeValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The date-time codec used for the action timestamp: LocalDateTimeDeserializer, LocalDateTimeSerializer and
+ * LocalDateTimeValidator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalDateTimeBenchmark {
+
+    @Param({"2021-08-24T16:36:31.806149", "2022-05-02T17:30:54Z", "2022-05-02T17:30:54+03:00", "2011-12-03T10:15:30+01:00[Europe/Paris]"})
+    String text;
+
+    private final LocalDateTimeValidator validator = new LocalDateTimeValidator();
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private byte[] json;
+    private LocalDateTime dateTime;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new LocalDateTimeModule());
+        reader = objectMapper.readerFor(LocalDateTime.class);
+        writer = objectMapper.writerFor(LocalDateTime.class);
+        json = ("\"" + text + "\"").getBytes(StandardCharsets.UTF_8);
+        dateTime = reader.readValue(json);
+    }
+
+    @Benchmark
+    public LocalDateTime deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(dateTime);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return validator.matches(text);
+    }
+}
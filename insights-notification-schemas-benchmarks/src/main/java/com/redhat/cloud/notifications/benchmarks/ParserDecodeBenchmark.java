@@ -0,0 +1,65 @@
+package com.redhat.cloud.notifications.benchmarks;
+
+import com.redhat.cloud.notifications.ingress.Action;
+import com.redhat.cloud.notifications.ingress.ActionHeader;
+import com.redhat.cloud.notifications.ingress.Parser;
+import com.redhat.cloud.notifications.ingress.ParserOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserDecodeBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int events;
+
+    @Param({"false", "true"})
+    boolean stringEmbeddedJson;
+
+    @Param({"false", "true"})
+    boolean streaming;
+
+    private String actionJson;
+    private byte[] actionBytes;
+    private ParserOptions options;
+
+    @Setup
+    public void setUp() {
+        actionJson = Actions.json(Actions.action(events), stringEmbeddedJson);
+        actionBytes = actionJson.getBytes(StandardCharsets.UTF_8);
+        options = ParserOptions.builder().streaming(streaming).build();
+    }
+
+    @Benchmark
+    public Action decodeString() {
+        return Parser.decode(actionJson, options);
+    }
+
+    @Benchmark
+    public Action decodeBytes() {
+        return Parser.decode(actionBytes, options);
+    }
+
+    // Baseline for the routing hops, which only need the header of the action.
+    @Benchmark
+    public ActionHeader peekBytes() {
+        return Parser.peek(actionBytes);
+    }
+}
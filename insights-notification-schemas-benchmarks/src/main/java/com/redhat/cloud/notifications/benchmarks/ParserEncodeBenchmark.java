@@ -0,0 +1,47 @@
+package com.redhat.cloud.notifications.benchmarks;
+
+import com.redhat.cloud.notifications.ingress.Action;
+import com.redhat.cloud.notifications.ingress.Parser;
+import com.redhat.cloud.notifications.ingress.ParserOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserEncodeBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int events;
+
+    @Param({"false", "true"})
+    boolean streaming;
+
+    private Action action;
+    private ParserOptions options;
+
+    @Setup
+    public void setUp() {
+        action = Actions.action(events);
+        options = ParserOptions.builder().streaming(streaming).build();
+    }
+
+    @Benchmark
+    public String encode() {
+        return Parser.encode(action, options);
+    }
+}
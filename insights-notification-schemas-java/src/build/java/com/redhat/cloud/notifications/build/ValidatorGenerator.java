@@ -0,0 +1,534 @@
+package com.redhat.cloud.notifications.build;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles the bundled JSON schemas into validator classes, run by the build next to jsonschema2pojo.
+ * <p>
+ * Each schema becomes a class with a method per sub-schema, doing the checks the networknt walk would do with the
+ * defaults applied, and reporting the same errors through {@code ErrorCollector}. The validation leaves the tree
+ * untouched, a property missing or null is valid when it has a default. The defaults are set by a separate pass,
+ * so that the callers decide whether and where to apply them. Only the keywords used by the bundled schemas are
+ * supported, any other keyword fails the build rather than being silently skipped.
+ * <p>
+ * Usage: {@code ValidatorGenerator <schemas directory> <output directory> <package>}
+ */
+public final class ValidatorGenerator {
+
+    // Annotations, or keywords handled by the parent schema.
+    private static final Set<String> IGNORED_KEYWORDS = Set.of("title", "description", "$comment", "default");
+    private static final Set<String> TYPES = Set.of("object", "array", "string", "boolean", "integer", "number", "null");
+    private static final int MAX_DEPTH = 8;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String packageName;
+    private final String className;
+    private final String schemaName;
+    private final List<String> methods = new ArrayList<>();
+    private final Map<String, String> formats = new LinkedHashMap<>();
+    private final Set<String> methodNames = new HashSet<>();
+    private final Set<String> imports = new TreeSet<>();
+
+    private ValidatorGenerator(String packageName, String schemaName) {
+        this.packageName = packageName;
+        this.schemaName = schemaName;
+        this.className = javaName(schemaName.substring(0, schemaName.length() - ".json".length()), true) + "Validator";
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: ValidatorGenerator <schemas directory> <output directory> <package>");
+        }
+
+        Path schemas = Paths.get(args[0]);
+        Path output = Paths.get(args[1]).resolve(args[2].replace('.', '/'));
+        Files.createDirectories(output);
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(schemas)) {
+            files = list.filter(path -> path.toString().endsWith(".json")).sorted().collect(Collectors.toList());
+        }
+
+        for (Path file : files) {
+            ValidatorGenerator generator = new ValidatorGenerator(args[2], file.getFileName().toString());
+            String source = generator.generate(generator.objectMapper.readTree(file.toFile()));
+            Path target = output.resolve(generator.className + ".java");
+
+            // Left untouched when unchanged, so that incremental builds do not recompile the module.
+            if (!Files.exists(target) || !Files.readString(target).equals(source)) {
+                Files.writeString(target, source, StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private String generate(JsonNode schema) {
+        String root = schemaMethod(schema, "#", "validateRoot", 0);
+        String defaults = defaultsMethod(schema, "#", "applyDefaultsRoot");
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n");
+        imports.add("com.fasterxml.jackson.databind.JsonNode");
+        imports.add("javax.annotation.processing.Generated");
+        for (String type : imports) {
+            if (!type.startsWith("java")) {
+                source.append("import ").append(type).append(";\n");
+            }
+        }
+        source.append("\n");
+        for (String type : imports) {
+            if (type.startsWith("java")) {
+                source.append("import ").append(type).append(";\n");
+            }
+        }
+        source.append("\n");
+        source.append("/**\n");
+        source.append(" * Validates a tree against ").append(schemaName).append(" and applies its defaults, as a walk of the schema would.\n");
+        source.append(" * The validation does not modify the tree, the defaults are applied separately.\n");
+        source.append(" * Generated from the schema at build time, do not edit.\n");
+        source.append(" */\n");
+        source.append("@Generated(\"").append(ValidatorGenerator.class.getName()).append("\")\n");
+        source.append("final class ").append(className).append(" {\n\n");
+
+        for (Map.Entry<String, String> format : formats.entrySet()) {
+            source.append("    private static final Format ").append(format.getValue())
+                .append(" = SchemaFormats.get(").append(literal(format.getKey())).append(");\n");
+        }
+        if (!formats.isEmpty()) {
+            source.append("\n");
+        }
+
+        source.append("    private ").append(className).append("() {\n    }\n\n");
+        source.append("    static void validate(JsonNode node, ErrorCollector errors) {\n");
+        source.append("        ").append(root).append("(node, new InstanceLocation(), errors);\n");
+        source.append("    }\n\n");
+        source.append("    static void applyDefaults(JsonNode node) {\n");
+        if (defaults != null) {
+            source.append("        ").append(defaults).append("(node);\n");
+        }
+        source.append("    }\n");
+
+        for (String method : methods) {
+            source.append("\n").append(method);
+        }
+
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /*
+     * Adds the method validating a node against the schema and returns its name,
+     * or null if the schema has nothing to check.
+     */
+    private String schemaMethod(JsonNode schema, String pointer, String name, int depth) {
+        if (!schema.isObject()) {
+            throw unsupported(pointer, "schemas other than objects are not supported");
+        }
+        if (depth > MAX_DEPTH) {
+            throw unsupported(pointer, "schemas nested deeper than " + MAX_DEPTH + " levels are not supported");
+        }
+
+        Code body = new Code(0);
+        for (Map.Entry<String, JsonNode> keyword : schema.properties()) {
+            JsonNode value = keyword.getValue();
+            switch (keyword.getKey()) {
+                case "type":
+                    type(body, value, pointer);
+                    break;
+                case "required":
+                    // The draft 3 "required": true of a property is not a keyword of draft 7, the walk ignores it.
+                    if (!value.isBoolean()) {
+                        required(body, value, schema.get("properties"), pointer);
+                    }
+                    break;
+                case "properties":
+                    properties(body, value, pointer, name, depth);
+                    break;
+                case "additionalProperties":
+                    additionalProperties(body, value, schema.get("properties"), pointer);
+                    break;
+                case "items":
+                    items(body, value, pointer, name, depth);
+                    break;
+                case "format":
+                    format(body, value, pointer);
+                    break;
+                case "minLength":
+                    minLength(body, value, pointer);
+                    break;
+                default:
+                    if (!IGNORED_KEYWORDS.contains(keyword.getKey())) {
+                        throw unsupported(pointer, "keyword " + keyword.getKey() + " is not supported");
+                    }
+            }
+        }
+
+        if (body.isEmpty()) {
+            return null;
+        }
+
+        String methodName = uniqueName(name);
+        Code method = new Code(1);
+        method.line("// " + pointer);
+        method.line("private static void " + methodName + "(JsonNode node, InstanceLocation location, ErrorCollector errors) {");
+        method.append(body);
+        method.line("}");
+        methods.add(method.toString());
+        return methodName;
+    }
+
+    private void type(Code code, JsonNode type, String pointer) {
+        List<String> types = new ArrayList<>();
+        if (type.isTextual()) {
+            types.add(type.textValue());
+        } else if (type.isArray()) {
+            type.forEach(item -> types.add(item.textValue()));
+        }
+        if (types.isEmpty() || !TYPES.containsAll(types)) {
+            throw unsupported(pointer, "type " + type + " is not supported");
+        }
+
+        String condition = types.stream().map(ValidatorGenerator::typeCheck).collect(Collectors.joining(" && "));
+        String expected = types.size() == 1 ? types.get(0) : types.stream().collect(Collectors.joining(", ", "[", "]"));
+        code.line("if (" + condition + ") {");
+        code.line("    errors.type(location.toNodePath(), node, " + literal(expected) + ");");
+        code.line("}");
+    }
+
+    private static String typeCheck(String type) {
+        switch (type) {
+            case "object":
+                return "!node.isObject()";
+            case "array":
+                return "!node.isArray()";
+            case "string":
+                return "!node.isTextual()";
+            case "boolean":
+                return "!node.isBoolean()";
+            case "integer":
+                return "!(node.isIntegralNumber() || node.isNumber() && node.canConvertToExactIntegral())";
+            case "number":
+                return "!node.isNumber()";
+            default:
+                return "!node.isNull()";
+        }
+    }
+
+    private void required(Code code, JsonNode required, JsonNode properties, String pointer) {
+        if (!required.isArray()) {
+            throw unsupported(pointer, "required must be an array");
+        }
+
+        code.line("if (node.isObject()) {");
+        for (JsonNode property : required) {
+            // Always there once the defaults are applied.
+            if (properties != null && properties.path(property.textValue()).has("default")) {
+                continue;
+            }
+            code.line("    if (!node.has(" + literal(property.textValue()) + ")) {");
+            code.line("        errors.required(location.toNodePath(), " + literal(property.textValue()) + ");");
+            code.line("    }");
+        }
+        code.line("}");
+    }
+
+    private void properties(Code code, JsonNode properties, String pointer, String name, int depth) {
+        Code inner = new Code(0);
+        for (Map.Entry<String, JsonNode> property : properties.properties()) {
+            String propertyPointer = pointer + "/properties/" + property.getKey();
+            String method = schemaMethod(property.getValue(), propertyPointer, name + javaName(property.getKey(), true), depth + 1);
+            JsonNode defaultValue = property.getValue().get("default");
+            if (defaultValue != null) {
+                checkDefault(defaultValue, property.getValue(), propertyPointer);
+            }
+            if (method != null) {
+                String value = javaName(property.getKey(), false) + "Value";
+                inner.line("JsonNode " + value + " = node.get(" + literal(property.getKey()) + ");");
+                // A missing or null property is replaced by its default, which conforms to the schema.
+                inner.line("if (" + value + " != null" + (defaultValue == null ? "" : " && !" + value + ".isNull()") + ") {");
+                inner.line("    location.push(" + literal(property.getKey()) + ");");
+                inner.line("    " + method + "(" + value + ", location, errors);");
+                inner.line("    location.pop();");
+                inner.line("}");
+            }
+        }
+
+        if (!inner.isEmpty()) {
+            code.line("if (node.isObject()) {");
+            code.append(inner);
+            code.line("}");
+        }
+    }
+
+    private void additionalProperties(Code code, JsonNode additionalProperties, JsonNode properties, String pointer) {
+        if (!additionalProperties.isBoolean()) {
+            throw unsupported(pointer, "additionalProperties must be a boolean");
+        }
+        if (additionalProperties.booleanValue()) {
+            return;
+        }
+
+        imports.add("java.util.Iterator");
+        code.line("if (node.isObject()) {");
+        code.line("    Iterator<String> names = node.fieldNames();");
+        code.line("    while (names.hasNext()) {");
+        code.line("        String name = names.next();");
+        if (properties == null || properties.isEmpty()) {
+            code.line("        errors.additionalProperty(location.toNodePath(), name);");
+        } else {
+            code.line("        switch (name) {");
+            properties.fieldNames().forEachRemaining(property -> code.line("            case " + literal(property) + ":"));
+            code.line("                break;");
+            code.line("            default:");
+            code.line("                errors.additionalProperty(location.toNodePath(), name);");
+            code.line("        }");
+        }
+        code.line("    }");
+        code.line("}");
+    }
+
+    private void items(Code code, JsonNode items, String pointer, String name, int depth) {
+        JsonNode defaultValue = items.get("default");
+        String method = schemaMethod(items, pointer + "/items", name + "Item", depth + 1);
+        if (defaultValue != null) {
+            checkDefault(defaultValue, items, pointer + "/items");
+        }
+        if (method == null) {
+            return;
+        }
+
+        code.line("if (node.isArray()) {");
+        code.line("    for (int i = 0; i < node.size(); i++) {");
+        code.line("        JsonNode item = node.get(i);");
+        if (defaultValue != null) {
+            code.line("        if (item.isNull()) {");
+            code.line("            continue;");
+            code.line("        }");
+        }
+        code.line("        location.push(i);");
+        code.line("        " + method + "(item, location, errors);");
+        code.line("        location.pop();");
+        code.line("    }");
+        code.line("}");
+    }
+
+    /*
+     * Adds the method setting the defaults of the schema and its sub-schemas on a node and returns its name,
+     * or null if there are none. The schema was already checked by schemaMethod.
+     */
+    private String defaultsMethod(JsonNode schema, String pointer, String name) {
+        Code body = new Code(0);
+
+        JsonNode properties = schema.get("properties");
+        if (properties != null) {
+            Code inner = new Code(0);
+            // Defaults are applied to all the properties before any of them is walked.
+            for (Map.Entry<String, JsonNode> property : properties.properties()) {
+                JsonNode defaultValue = property.getValue().get("default");
+                if (defaultValue != null) {
+                    imports.add("com.fasterxml.jackson.databind.node.ObjectNode");
+                    inner.line("if (!node.hasNonNull(" + literal(property.getKey()) + ")) {");
+                    inner.line("    ((ObjectNode) node).set(" + literal(property.getKey()) + ", " + defaultValue(defaultValue, pointer) + ");");
+                    inner.line("}");
+                }
+            }
+
+            for (Map.Entry<String, JsonNode> property : properties.properties()) {
+                String propertyPointer = pointer + "/properties/" + property.getKey();
+                String method = defaultsMethod(property.getValue(), propertyPointer, name + javaName(property.getKey(), true));
+                if (method != null) {
+                    String value = javaName(property.getKey(), false) + "Value";
+                    inner.line("JsonNode " + value + " = node.get(" + literal(property.getKey()) + ");");
+                    inner.line("if (" + value + " != null) {");
+                    inner.line("    " + method + "(" + value + ");");
+                    inner.line("}");
+                }
+            }
+
+            if (!inner.isEmpty()) {
+                body.line("if (node.isObject()) {");
+                body.append(inner);
+                body.line("}");
+            }
+        }
+
+        JsonNode items = schema.get("items");
+        if (items != null) {
+            JsonNode defaultValue = items.get("default");
+            String method = defaultsMethod(items, pointer + "/items", name + "Item");
+            if (method != null || defaultValue != null) {
+                body.line("if (node.isArray()) {");
+                body.line("    for (int i = 0; i < node.size(); i++) {");
+                body.line("        JsonNode item = node.get(i);");
+                if (defaultValue != null) {
+                    imports.add("com.fasterxml.jackson.databind.node.ArrayNode");
+                    body.line("        if (item.isNull()) {");
+                    body.line("            item = " + defaultValue(defaultValue, pointer + "/items") + ";");
+                    body.line("            ((ArrayNode) node).set(i, item);");
+                    body.line("        }");
+                }
+                if (method != null) {
+                    body.line("        " + method + "(item);");
+                }
+                body.line("    }");
+                body.line("}");
+            }
+        }
+
+        if (body.isEmpty()) {
+            return null;
+        }
+
+        String methodName = uniqueName(name);
+        Code method = new Code(1);
+        method.line("// " + pointer);
+        method.line("private static void " + methodName + "(JsonNode node) {");
+        method.append(body);
+        method.line("}");
+        methods.add(method.toString());
+        return methodName;
+    }
+
+    // The validation skips the missing and null values that have a default, which must then conform to the type.
+    private void checkDefault(JsonNode value, JsonNode schema, String pointer) {
+        JsonNode type = schema.get("type");
+        if (type == null) {
+            return;
+        }
+
+        String valueType = value.isTextual() ? "string" : value.isBoolean() ? "boolean" : value.isObject() ? "object" : value.isArray() ? "array" : null;
+        boolean conforms = false;
+        for (JsonNode item : type.isArray() ? type : List.of(type)) {
+            conforms |= item.asText().equals(valueType);
+        }
+        if (!conforms) {
+            throw unsupported(pointer, "default " + value + " does not conform to type " + type);
+        }
+    }
+
+    private void format(Code code, JsonNode format, String pointer) {
+        if (!format.isTextual()) {
+            throw unsupported(pointer, "format must be a string");
+        }
+
+        imports.add("com.networknt.schema.format.Format");
+        String field = formats.computeIfAbsent(format.textValue(),
+            value -> value.replaceAll("[^A-Za-z0-9]", "_").toUpperCase() + "_FORMAT");
+        code.line("if (node.isTextual()) {");
+        code.line("    SchemaFormats.check(" + field + ", node.textValue(), location, errors);");
+        code.line("}");
+    }
+
+    private void minLength(Code code, JsonNode minLength, String pointer) {
+        if (!minLength.canConvertToInt()) {
+            throw unsupported(pointer, "minLength must be an integer");
+        }
+
+        int min = minLength.intValue();
+        code.line("if (node.isTextual() && node.textValue().codePointCount(0, node.textValue().length()) < " + min + ") {");
+        code.line("    errors.minLength(location.toNodePath(), " + min + ");");
+        code.line("}");
+    }
+
+    // A new node for each use, as the tree the default is applied to may be modified afterwards.
+    private String defaultValue(JsonNode value, String pointer) {
+        if (value.isTextual()) {
+            imports.add("com.fasterxml.jackson.databind.node.TextNode");
+            return "TextNode.valueOf(" + literal(value.textValue()) + ")";
+        } else if (value.isBoolean()) {
+            imports.add("com.fasterxml.jackson.databind.node.BooleanNode");
+            return "BooleanNode.valueOf(" + value.booleanValue() + ")";
+        } else if (value.isContainerNode() && value.isEmpty()) {
+            imports.add("com.fasterxml.jackson.databind.node.JsonNodeFactory");
+            return value.isObject() ? "JsonNodeFactory.instance.objectNode()" : "JsonNodeFactory.instance.arrayNode()";
+        }
+
+        throw unsupported(pointer, "default " + value + " is not supported");
+    }
+
+    private String uniqueName(String name) {
+        String unique = name;
+        for (int i = 2; !methodNames.add(unique); i++) {
+            unique = name + i;
+        }
+
+        return unique;
+    }
+
+    private IllegalArgumentException unsupported(String pointer, String reason) {
+        return new IllegalArgumentException(schemaName + pointer + ": " + reason);
+    }
+
+    private static String javaName(String name, boolean capitalize) {
+        StringBuilder javaName = new StringBuilder();
+        boolean upper = capitalize;
+        for (char c : name.toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                javaName.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            } else {
+                upper = javaName.length() > 0 || capitalize;
+            }
+        }
+
+        return javaName.toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+
+    private static final class Code {
+
+        private final StringBuilder text = new StringBuilder();
+        private final String indent;
+
+        private Code(int level) {
+            this.indent = "    ".repeat(level);
+        }
+
+        void line(String line) {
+            text.append(indent).append(line).append('\n');
+        }
+
+        // Nests the code one level deeper than the lines of this one.
+        void append(Code code) {
+            code.text.toString().lines().forEach(line -> line(line.isEmpty() ? line : "    " + line));
+        }
+
+        boolean isEmpty() {
+            return text.length() == 0;
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.redhat.cloud.notifications.ingress;
+
+import java.util.ArrayList;
+
+/**
+ * Sets the default values of Action.json on a decoded Action, for the properties that were missing or null.
+ * Applied once the Action is bound, so that the validation never has to modify the json it checks.
+ * This class mirrors the defaults of Action.json, any change to them needs to be reflected here.
+ */
+final class ActionDefaults {
+
+    private ActionDefaults() {
+    }
+
+    static void apply(Action action) {
+        if (action.getVersion() == null) {
+            action.setVersion(Schemas.CURRENT_VERSION);
+        }
+        if (action.getContext() == null) {
+            action.setContext(new Context());
+        }
+        for (Event event : action.getEvents()) {
+            if (event.getMetadata() == null) {
+                event.setMetadata(new Metadata());
+            }
+        }
+        if (action.getRecipients() == null) {
+            action.setRecipients(new ArrayList<>());
+        } else {
+            for (Recipient recipient : action.getRecipients()) {
+                apply(recipient);
+            }
+        }
+    }
+
+    private static void apply(Recipient recipient) {
+        if (recipient.getOnlyAdmins() == null) {
+            recipient.setOnlyAdmins(false);
+        }
+        if (recipient.getIgnoreUserPreferences() == null) {
+            recipient.setIgnoreUserPreferences(false);
+        }
+        if (recipient.getUsers() == null) {
+            recipient.setUsers(new ArrayList<>());
+        }
+        if (recipient.getEmails() == null) {
+            recipient.setEmails(new ArrayList<>());
+        }
+        if (recipient.getGroups() == null) {
+            recipient.setGroups(new ArrayList<>());
+        }
+    }
+}
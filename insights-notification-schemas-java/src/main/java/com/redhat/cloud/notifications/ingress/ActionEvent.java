@@ -0,0 +1,56 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of the {@link Parser} about a single Action.
+ * The events are disabled by default, they are only created and committed when a recording enables them, e.g. with
+ * {@code jcmd <pid> JFR.start settings=profile +com.redhat.cloud.notifications.Decode#enabled=true}.
+ */
+@Category({ "Red Hat Insights", "Notifications" })
+@Enabled(false)
+@StackTrace(false)
+abstract class ActionEvent extends Event {
+
+    static final String SUCCESS = "success";
+    static final String INVALID = "invalid";
+    static final String FAILURE = "failure";
+
+    @Label("Bundle")
+    String bundle;
+
+    @Label("Application")
+    String application;
+
+    @Label("Event Type")
+    String eventType;
+
+    @Label("Events")
+    int events;
+
+    @Label("Outcome")
+    String outcome;
+
+    void set(Action action, String outcome) {
+        if (action != null) {
+            bundle = action.getBundle();
+            application = action.getApplication();
+            eventType = action.getEventType();
+            events = action.getEvents() == null ? 0 : action.getEvents().size();
+        }
+        this.outcome = outcome;
+    }
+
+    void set(JsonNode action, String outcome) {
+        bundle = action.path("bundle").textValue();
+        application = action.path("application").textValue();
+        eventType = action.path("event_type").textValue();
+        events = action.path("events").size();
+        this.outcome = outcome;
+    }
+}
@@ -0,0 +1,148 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Routing fields of an Action, read by {@link Parser#peek(byte[])} without decoding the rest of it.
+ * Nothing is validated: a field that is missing or is not a json string is null, and the id is kept as sent.
+ */
+public final class ActionHeader {
+
+    private static final int BUNDLE = 1;
+    private static final int APPLICATION = 1 << 1;
+    private static final int EVENT_TYPE = 1 << 2;
+    private static final int ORG_ID = 1 << 3;
+    private static final int ID = 1 << 4;
+    private static final int SEVERITY = 1 << 5;
+    private static final int ALL = (1 << 6) - 1;
+
+    private final String bundle;
+    private final String application;
+    private final String eventType;
+    private final String orgId;
+    private final String id;
+    private final String severity;
+
+    ActionHeader(String bundle, String application, String eventType, String orgId, String id, String severity) {
+        this.bundle = bundle;
+        this.application = application;
+        this.eventType = eventType;
+        this.orgId = orgId;
+        this.id = id;
+        this.severity = severity;
+    }
+
+    /**
+     * Reads the routing fields of the Action, skipping the values of the other fields without binding them, and
+     * stops as soon as all of them were read, wherever they are in the object.
+     * @param parser parser positioned before the Action object
+     * @return ActionHeader routing fields of the Action
+     */
+    static ActionHeader read(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(parser, ActionHeader.class,
+                token == null ? "No content to map due to end-of-input" : "Expected an object but found " + token);
+        }
+
+        String bundle = null;
+        String application = null;
+        String eventType = null;
+        String orgId = null;
+        String id = null;
+        String severity = null;
+        int found = 0;
+        String name;
+        while (found != ALL && (name = parser.nextFieldName()) != null) {
+            token = parser.nextToken();
+            if (token != JsonToken.VALUE_STRING) {
+                parser.skipChildren();
+                continue;
+            }
+
+            switch (name) {
+                case "bundle":
+                    bundle = parser.getText();
+                    found |= BUNDLE;
+                    break;
+                case "application":
+                    application = parser.getText();
+                    found |= APPLICATION;
+                    break;
+                case "event_type":
+                    eventType = parser.getText();
+                    found |= EVENT_TYPE;
+                    break;
+                case "org_id":
+                    orgId = parser.getText();
+                    found |= ORG_ID;
+                    break;
+                case "id":
+                    id = parser.getText();
+                    found |= ID;
+                    break;
+                case "severity":
+                    severity = parser.getText();
+                    found |= SEVERITY;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return new ActionHeader(bundle, application, eventType, orgId, id, severity);
+    }
+
+    public String getBundle() {
+        return bundle;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getOrgId() {
+        return orgId;
+    }
+
+    /**
+     * The id as sent, which is not checked to be a UUID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    @Override
+    public String toString() {
+        return "ActionHeader[bundle=" + bundle + ", application=" + application + ", eventType=" + eventType +
+            ", orgId=" + orgId + ", id=" + id + ", severity=" + severity + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ActionHeader that = (ActionHeader) o;
+        return Objects.equals(bundle, that.bundle) && Objects.equals(application, that.application)
+            && Objects.equals(eventType, that.eventType) && Objects.equals(orgId, that.orgId)
+            && Objects.equals(id, that.id) && Objects.equals(severity, that.severity);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bundle, application, eventType, orgId, id, severity);
+    }
+}
@@ -0,0 +1,141 @@
+package com.redhat.cloud.notifications.ingress;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the Actions of an {@link ActionStream}, only decoding as many as the subscriber requested, so nothing is
+ * buffered ahead of the demand. The Actions are decoded and signalled on the executor, one at a time.
+ * The stream can only be read once, a second subscriber gets an {@link IllegalStateException}.
+ */
+final class ActionPublisher implements Flow.Publisher<BatchResult<Action>> {
+
+    private final ActionStream stream;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    ActionPublisher(ActionStream stream, Executor executor) {
+        this.stream = stream;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BatchResult<Action>> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The actions can only be subscribed to once"));
+            return;
+        }
+
+        subscriber.onSubscribe(new ActionSubscription(subscriber));
+    }
+
+    private final class ActionSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super BatchResult<Action>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        // Number of signals not handled yet by the drain loop, which only runs on one thread at a time.
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+        // Only accessed by the drain loop.
+        private boolean done;
+
+        private ActionSubscription(Flow.Subscriber<? super BatchResult<Action>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("The number of actions requested must be positive, was " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, requested) -> current + requested < 0 ? Long.MAX_VALUE : current + requested);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException exception) {
+                    drain();
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    if (cancelled) {
+                        finish();
+                    } else if (invalidRequest != null) {
+                        finish();
+                        subscriber.onError(invalidRequest);
+                    } else {
+                        emit();
+                    }
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            long requested = demand.get();
+            long emitted = 0;
+            while (emitted != requested && !cancelled) {
+                BatchResult<Action> next;
+                try {
+                    if (!stream.hasNext()) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    next = stream.next();
+                } catch (RuntimeException exception) {
+                    finish();
+                    subscriber.onError(exception);
+                    return;
+                }
+
+                subscriber.onNext(next);
+                emitted++;
+            }
+
+            if (requested != Long.MAX_VALUE) {
+                demand.addAndGet(-emitted);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            try {
+                stream.close();
+            } catch (RuntimeException ignored) {
+                // The outcome of the stream is already decided, failing to release it does not change it.
+            }
+        }
+    }
+}
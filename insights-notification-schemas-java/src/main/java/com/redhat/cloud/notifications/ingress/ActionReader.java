@@ -0,0 +1,505 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.networknt.schema.format.Format;
+import com.networknt.schema.path.NodePath;
+import com.redhat.cloud.notifications.time.IsoDateTime;
+import com.redhat.cloud.notifications.validator.LocalDateTimeValidator;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Decodes an Action in a single pass over the json tokens: the rules of Action.json are checked and the
+ * generated classes bound as the tokens are read, without building an intermediate JsonNode tree.
+ * The values are bound as Jackson binds a tree, the defaults are then applied by {@link ActionDefaults}.
+ * This class mirrors Action.json, any change to the schema needs to be reflected here.
+ */
+final class ActionReader {
+
+    private static final LocalDateTimeValidator DATE_TIME_FORMAT = new LocalDateTimeValidator();
+    private static final Format UUID_FORMAT = SchemaFormats.get("uuid");
+    static final Format EMAIL_FORMAT = SchemaFormats.get("email");
+
+    private final JsonParser parser;
+    private final boolean lazyEmbeddedJson;
+    private final StringTable stringTable;
+    private final ErrorCollector errors;
+    private final InstanceLocation location = new InstanceLocation();
+
+    private ActionReader(JsonParser parser, ParserOptions options) {
+        this.parser = parser;
+        this.lazyEmbeddedJson = options.isLazyEmbeddedJson();
+        this.stringTable = options.getStringTable();
+        this.errors = new ErrorCollector(options);
+    }
+
+    /**
+     * Reads the Action starting at the current token of the parser.
+     * @param parser parser positioned on the first token of the Action, left on its last token
+     * @param options options to decode the Action
+     * @return Action valid Action, without the default values of the schema
+     * @throws ParsingException if the Action does not conform to the schema
+     */
+    static Action read(JsonParser parser, ParserOptions options) throws IOException {
+        ActionReader reader = new ActionReader(parser, options);
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            throw MismatchedInputException.from(parser, Action.class, "No content to map due to end-of-input");
+        }
+
+        Action action = reader.readAction(token);
+        reader.errors.throwIfAny();
+        return action;
+    }
+
+    private Action readAction(JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            typeMismatch("object", token);
+            return null;
+        }
+
+        Action action = new Action();
+        boolean hasBundle = false;
+        boolean hasApplication = false;
+        boolean hasEventType = false;
+        boolean hasTimestamp = false;
+        boolean hasEvents = false;
+        boolean hasOrgId = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            location.push(field);
+            switch (field) {
+                case "version":
+                    action.setVersion(value == JsonToken.VALUE_NULL ? null : readHeader(value));
+                    break;
+                case "id":
+                    String id = readString(value);
+                    if (id != null && matches(UUID_FORMAT, id)) {
+                        action.setId(UUID.fromString(id));
+                    }
+                    break;
+                case "bundle":
+                    hasBundle = true;
+                    action.setBundle(readHeader(value));
+                    break;
+                case "application":
+                    hasApplication = true;
+                    action.setApplication(readHeader(value));
+                    break;
+                case "event_type":
+                    hasEventType = true;
+                    action.setEventType(readHeader(value));
+                    break;
+                case "timestamp":
+                    hasTimestamp = true;
+                    action.setTimestamp(readTimestamp(value));
+                    break;
+                case "account_id":
+                    if (value == JsonToken.VALUE_STRING) {
+                        action.setAccountId(parser.getText());
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        typeMismatch("[string, null]", value);
+                    }
+                    break;
+                case "org_id":
+                    hasOrgId = true;
+                    action.setOrgId(readHeader(value));
+                    break;
+                case "severity":
+                    action.setSeverity(readHeader(value));
+                    break;
+                case "context":
+                    action.setContext(readEmbeddedObject(value, Context.class, LazyContext::new, true));
+                    break;
+                case "events":
+                    hasEvents = true;
+                    action.setEvents(readEvents(value));
+                    break;
+                case "recipients":
+                    action.setRecipients(value == JsonToken.VALUE_NULL ? null : readRecipients(value));
+                    break;
+                case "recipients_authorization_criterion":
+                    action.setRecipientsAuthorizationCriterion(readRecipientsAuthorizationCriterion(value));
+                    break;
+                default:
+                    location.pop();
+                    additionalProperty(field);
+                    continue;
+            }
+            location.pop();
+        }
+
+        required(hasBundle, "bundle");
+        required(hasApplication, "application");
+        required(hasEventType, "event_type");
+        required(hasTimestamp, "timestamp");
+        required(hasEvents, "events");
+        required(hasOrgId, "org_id");
+
+        return action;
+    }
+
+    private List<Event> readEvents(JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            typeMismatch("array", token);
+            return null;
+        }
+
+        List<Event> events = new ArrayList<>();
+        int index = 0;
+        for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+            location.push(index++);
+            events.add(readEvent(item));
+            location.pop();
+        }
+
+        return events;
+    }
+
+    private Event readEvent(JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            typeMismatch("object", token);
+            return null;
+        }
+
+        Event event = new Event();
+        boolean hasPayload = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "metadata":
+                    location.push(field);
+                    event.setMetadata(value == JsonToken.VALUE_NULL ? null : readObject(value, Metadata.class));
+                    location.pop();
+                    break;
+                case "payload":
+                    hasPayload = true;
+                    location.push(field);
+                    event.setPayload(readEmbeddedObject(value, Payload.class, LazyPayload::new, false));
+                    location.pop();
+                    break;
+                default:
+                    additionalProperty(field);
+            }
+        }
+
+        required(hasPayload, "payload");
+
+        return event;
+    }
+
+    private List<Recipient> readRecipients(JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            typeMismatch("array", token);
+            return null;
+        }
+
+        List<Recipient> recipients = new ArrayList<>();
+        int index = 0;
+        for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+            location.push(index++);
+            recipients.add(readRecipient(item));
+            location.pop();
+        }
+
+        return recipients;
+    }
+
+    private Recipient readRecipient(JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            typeMismatch("object", token);
+            return null;
+        }
+
+        Recipient recipient = new Recipient();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            // The properties with a default are valid when null, they are set by ActionDefaults.
+            boolean isNull = value == JsonToken.VALUE_NULL;
+            location.push(field);
+            switch (field) {
+                case "only_admins":
+                    recipient.setOnlyAdmins(isNull ? null : readBoolean(value));
+                    break;
+                case "ignore_user_preferences":
+                    recipient.setIgnoreUserPreferences(isNull ? null : readBoolean(value));
+                    break;
+                case "users":
+                    recipient.setUsers(isNull ? null : readStrings(value, null));
+                    break;
+                case "emails":
+                    recipient.setEmails(isNull ? null : readStrings(value, EMAIL_FORMAT));
+                    break;
+                case "groups":
+                    recipient.setGroups(isNull ? null : readStrings(value, null));
+                    break;
+                default:
+                    location.pop();
+                    additionalProperty(field);
+                    continue;
+            }
+            location.pop();
+        }
+
+        return recipient;
+    }
+
+    private RecipientsAuthorizationCriterion readRecipientsAuthorizationCriterion(JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            typeMismatch("object", token);
+            return null;
+        }
+
+        RecipientsAuthorizationCriterion criterion = new RecipientsAuthorizationCriterion();
+        boolean hasType = false;
+        boolean hasRelation = false;
+        boolean hasId = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            location.push(field);
+            switch (field) {
+                case "type":
+                    hasType = true;
+                    criterion.setType(readType(value));
+                    break;
+                case "relation":
+                    hasRelation = true;
+                    criterion.setRelation(readString(value));
+                    break;
+                case "id":
+                    hasId = true;
+                    criterion.setId(readString(value));
+                    break;
+                default:
+                    location.pop();
+                    additionalProperty(field);
+                    continue;
+            }
+            location.pop();
+        }
+
+        required(hasId, "id");
+        required(hasRelation, "relation");
+        required(hasType, "type");
+
+        return criterion;
+    }
+
+    private Type readType(JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            typeMismatch("object", token);
+            return null;
+        }
+
+        Type type = new Type();
+        boolean hasName = false;
+        boolean hasNamespace = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            location.push(field);
+            switch (field) {
+                case "name":
+                    hasName = true;
+                    type.setName(readString(value));
+                    break;
+                case "namespace":
+                    hasNamespace = true;
+                    type.setNamespace(readString(value));
+                    break;
+                default:
+                    location.pop();
+                    additionalProperty(field);
+                    continue;
+            }
+            location.pop();
+        }
+
+        required(hasName, "name");
+        required(hasNamespace, "namespace");
+
+        return type;
+    }
+
+    private String readString(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+
+        typeMismatch("string", token);
+        return null;
+    }
+
+    // Header values repeat across actions, they are resolved from the characters of the parser when canonicalized.
+    private String readHeader(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING && stringTable != null) {
+            return stringTable.canonicalize(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+
+        return readString(token);
+    }
+
+    private Boolean readBoolean(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return parser.getBooleanValue();
+        }
+
+        typeMismatch("boolean", token);
+        return null;
+    }
+
+    private List<String> readStrings(JsonToken token, Format format) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            typeMismatch("array", token);
+            return null;
+        }
+
+        List<String> values = new ArrayList<>();
+        int index = 0;
+        for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+            location.push(index++);
+            String value = readString(item);
+            if (value != null && format != null) {
+                matches(format, value);
+            }
+            values.add(value);
+            location.pop();
+        }
+
+        return values;
+    }
+
+    private LocalDateTime readTimestamp(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            LocalDateTime timestamp = IsoDateTime.parseUtc(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            if (timestamp != null) {
+                return timestamp;
+            }
+        }
+
+        String timestamp = readString(token);
+        if (timestamp == null) {
+            return null;
+        }
+
+        String mismatch = DATE_TIME_FORMAT.mismatch(timestamp);
+        if (mismatch != null) {
+            errors.format(location(), DATE_TIME_FORMAT, timestamp, mismatch);
+            return null;
+        }
+
+        return parser.readValueAs(LocalDateTime.class);
+    }
+
+    private <T> T readObject(JsonToken token, Class<T> type) throws IOException {
+        if (token == JsonToken.START_OBJECT) {
+            return parser.readValueAs(type);
+        }
+
+        typeMismatch("object", token);
+        return null;
+    }
+
+    /*
+     * context and events[].payload could be strings holding the json object. A string holding null is read as a null
+     * value, like the tree parser does, which is only accepted where the schema has a default.
+     */
+    private <T> T readEmbeddedObject(JsonToken token, Class<T> type, Function<String, T> lazy, boolean nullable) throws IOException {
+        if (token == JsonToken.VALUE_NULL && nullable) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            return readObject(token, type);
+        }
+
+        if (lazyEmbeddedJson && EmbeddedJson.isObject(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())) {
+            return lazy.apply(parser.getText());
+        }
+
+        try (JsonParser embedded = Parser.objectMapper.createParser(parser.getText())) {
+            JsonToken first = embedded.nextToken();
+            if (first == null) {
+                // An empty string reads as a missing node in the tree, which is of an unknown type.
+                errors.type(location(), "unknown", "object");
+                return null;
+            }
+
+            if (first == JsonToken.START_OBJECT) {
+                return embedded.readValueAs(type);
+            }
+            if (first == JsonToken.VALUE_NULL && nullable) {
+                return null;
+            }
+
+            typeMismatch("object", first);
+            return null;
+        }
+    }
+
+    private boolean matches(Format format, String value) {
+        if (format.matches(null, value)) {
+            return true;
+        }
+
+        errors.format(location(), format, value);
+        return false;
+    }
+
+    private void required(boolean present, String property) {
+        if (!present) {
+            errors.required(location(), property);
+        }
+    }
+
+    private void additionalProperty(String property) throws IOException {
+        errors.additionalProperty(location(), property);
+        parser.skipChildren();
+    }
+
+    private void typeMismatch(String expected, JsonToken found) throws IOException {
+        errors.type(location(), typeName(found), expected);
+        parser.skipChildren();
+    }
+
+    private static String typeName(JsonToken token) {
+        switch (token) {
+            case START_OBJECT:
+                return "object";
+            case START_ARRAY:
+                return "array";
+            case VALUE_STRING:
+                return "string";
+            case VALUE_NUMBER_INT:
+                return "integer";
+            case VALUE_NUMBER_FLOAT:
+                return "number";
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return "boolean";
+            case VALUE_NULL:
+                return "null";
+            default:
+                return "unknown";
+        }
+    }
+
+    private NodePath location() {
+        return location.toNodePath();
+    }
+}
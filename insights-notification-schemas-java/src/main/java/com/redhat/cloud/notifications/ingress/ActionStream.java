@@ -0,0 +1,126 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Decodes the Actions of a json stream one at a time, either a sequence of json objects such as NDJSON or a single
+ * json array of objects. Only the Action being decoded is held in memory, whatever the size of the stream.
+ * <p>
+ * An Action that does not conform to the schema, holds malformed embedded json or exceeds the {@link ParserLimits} is
+ * returned as a failed {@link BatchResult} and the stream goes on with the next one. Malformed json ends the stream,
+ * {@link #hasNext()} and {@link #next()} then throw an {@link UncheckedIOException}. Instances are not thread-safe.
+ */
+public final class ActionStream implements Iterator<BatchResult<Action>>, Closeable {
+
+    private final JsonParser parser;
+    private final ParserOptions options;
+    private boolean started;
+    private boolean inArray;
+    private boolean finished;
+    private BatchResult<Action> next;
+
+    ActionStream(JsonParser parser, ParserOptions options) {
+        this.parser = parser;
+        this.options = options;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+
+        try {
+            JsonToken token = parser.nextToken();
+            if (!started) {
+                started = true;
+                if (token == JsonToken.START_ARRAY) {
+                    inArray = true;
+                    token = parser.nextToken();
+                }
+            }
+
+            if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+                finished = true;
+                close();
+                return false;
+            }
+
+            next = decode(token);
+            return true;
+        } catch (IOException exception) {
+            finished = true;
+            closeQuietly();
+            throw new UncheckedIOException("Unable to decode actions", exception);
+        }
+    }
+
+    @Override
+    public BatchResult<Action> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        BatchResult<Action> result = next;
+        next = null;
+        return result;
+    }
+
+    private BatchResult<Action> decode(JsonToken token) throws IOException {
+        // Depth of the container holding the Action, the parser is back to it once the Action is fully read.
+        int depth = parser.getParsingContext().getNestingDepth() - (token.isStructStart() ? 1 : 0);
+        RuntimeException error;
+        try {
+            return BatchResult.success(Parser.decodeNext(parser, options));
+        } catch (ParsingException exception) {
+            error = exception;
+        } catch (JsonProcessingException exception) {
+            // Malformed json in the stream itself cannot be skipped, unlike malformed embedded json or exceeded limits.
+            if (exception instanceof JsonParseException && exception.getProcessor() == parser) {
+                throw exception;
+            }
+            error = new UncheckedIOException("Unable to decode action", exception);
+        }
+
+        // A rejection can stop in the middle of the Action, when failing fast or exceeding a limit, the rest of it is skipped.
+        while (parser.getParsingContext().getNestingDepth() > depth) {
+            if (parser.nextToken() == null) {
+                break;
+            }
+            parser.skipChildren();
+        }
+        return BatchResult.failure(error);
+    }
+
+    /**
+     * Closes the underlying stream, which is also closed once all the Actions were read.
+     */
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to close actions", exception);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // The stream already failed, its error is the one reported.
+        }
+    }
+}
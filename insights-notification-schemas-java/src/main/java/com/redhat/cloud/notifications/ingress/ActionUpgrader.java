@@ -0,0 +1,17 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Upgrades an Action of an older version of the schema to the current one, see {@link ActionVersions}.
+ */
+@FunctionalInterface
+public interface ActionUpgrader {
+
+    /**
+     * Rewrites the action in place, it was validated against the schema of its version and is then validated
+     * against the current schema, with its defaults applied. The version itself is set by the {@link Parser}.
+     * @param action action of the older version
+     */
+    void upgrade(ObjectNode action);
+}
@@ -0,0 +1,164 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.networknt.schema.Schema;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Older versions of Action.json still accepted by the {@link Parser}, so that producers can move to a new version of
+ * the schema one at a time. An Action whose version is registered here is validated against the schema of its
+ * version, upgraded to the current version and then decoded as any current Action. Any other version, including a
+ * missing one, is decoded with the current schema.
+ * <p>
+ * The schema of each version is compiled once, when the versions are built, from /schemas/{version}/Action.json.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class ActionVersions {
+
+    /**
+     * Only the current version.
+     */
+    public static final ActionVersions CURRENT = builder().build();
+
+    private static final String VERSION_FIELD = "version";
+
+    private final Map<String, Version> versions;
+
+    private ActionVersions(Builder builder) {
+        this.versions = Map.copyOf(builder.versions);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return Set the older versions accepted
+     */
+    public Set<String> getVersions() {
+        return Collections.unmodifiableSet(versions.keySet());
+    }
+
+    boolean isEmpty() {
+        return versions.isEmpty();
+    }
+
+    /**
+     * @return Version the older version, null for the current one or any version that is not registered
+     */
+    Version get(String version) {
+        return version == null ? null : versions.get(version);
+    }
+
+    /**
+     * Reads the top level fields of an Action until its version, so that the Action can then be decoded according to
+     * its version within the same pass over the json.
+     * <p>
+     * The tokens read are buffered, and replayed by the parser of the returned Versioned before it carries on with the
+     * given parser. Nothing but the version is buffered when it is the first field, the fields before it otherwise,
+     * and the whole Action when it has no version.
+     * @param parser parser on the first token of the Action, left on the version or on the last token of the Action
+     * @return Versioned the version, null if it is missing or not a string, and the parser to decode the Action from
+     */
+    static Versioned readVersion(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return new Versioned(null, parser);
+        }
+
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.copyCurrentEvent(parser);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            buffer.copyCurrentEvent(parser);
+            boolean isVersion = VERSION_FIELD.equals(parser.currentName());
+            JsonToken value = parser.nextToken();
+            String version = isVersion && value == JsonToken.VALUE_STRING ? parser.getText() : null;
+            buffer.copyCurrentStructure(parser);
+            if (isVersion) {
+                return new Versioned(version, JsonParserSequence.createFlattened(false, replay(buffer), parser));
+            }
+        }
+        buffer.copyCurrentEvent(parser);
+
+        return new Versioned(null, replay(buffer));
+    }
+
+    // Positioned on the first token, as the parser the tokens were read from was.
+    private static JsonParser replay(TokenBuffer buffer) throws IOException {
+        JsonParser replay = buffer.asParser();
+        replay.nextToken();
+        return replay;
+    }
+
+    static final class Versioned {
+
+        private final String version;
+        private final JsonParser parser;
+
+        private Versioned(String version, JsonParser parser) {
+            this.version = version;
+            this.parser = parser;
+        }
+
+        String getVersion() {
+            return version;
+        }
+
+        JsonParser getParser() {
+            return parser;
+        }
+    }
+
+    static final class Version {
+
+        private final Schema schema;
+        private final ActionUpgrader upgrader;
+
+        private Version(Schema schema, ActionUpgrader upgrader) {
+            this.schema = schema;
+            this.upgrader = upgrader;
+        }
+
+        Schema getSchema() {
+            return schema;
+        }
+
+        ActionUpgrader getUpgrader() {
+            return upgrader;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Version> versions = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Accepts the Actions of an older version, compiling the schema of that version.
+         * @param version older version of Action.json
+         * @param upgrader upgrades an Action of that version to the current one
+         * @throws com.networknt.schema.SchemaException if the schema is not bundled for that version
+         */
+        public Builder upgrade(String version, ActionUpgrader upgrader) {
+            if (Schemas.CURRENT_VERSION.equals(Objects.requireNonNull(version))) {
+                throw new IllegalArgumentException("The current version " + version + " cannot be upgraded");
+            }
+            versions.put(version, new Version(Schemas.get(Schemas.ACTION, version), Objects.requireNonNull(upgrader)));
+            return this;
+        }
+
+        public ActionVersions build() {
+            return new ActionVersions(this);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.redhat.cloud.notifications.jackson.serializer.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes an Action straight from the generated classes to a {@link JsonGenerator}, without building an
+ * intermediate JsonNode tree.
+ * <p>
+ * The rules of Action.json are checked before anything is written, so that a rejected Action leaves no partial
+ * json behind. The output is the same as serializing the tree the schema walk produces: the non-null properties in
+ * the order of the generated classes, followed by the missing properties that have a default value, in the order of
+ * the schema.
+ * This class mirrors Action.json, any change to the schema needs to be reflected here.
+ */
+final class ActionWriter {
+
+    private static final LocalDateTimeSerializer TIMESTAMP_SERIALIZER = new LocalDateTimeSerializer();
+
+    private final ErrorCollector errors;
+    private final InstanceLocation location = new InstanceLocation();
+
+    private ActionWriter(ParserOptions options) {
+        this.errors = new ErrorCollector(options);
+    }
+
+    /**
+     * Checks the Action against Action.json.
+     * @param action Action to check
+     * @param options options the Action is encoded with
+     * @throws ParsingException if the Action does not conform to the schema
+     */
+    static void check(Action action, ParserOptions options) {
+        ActionWriter writer = new ActionWriter(options);
+        writer.checkAction(action);
+        writer.errors.throwIfAny();
+    }
+
+    /**
+     * Wraps an Action that already went through {@link #check(Action, ParserOptions)}, so that an ObjectWriter writes
+     * it with {@link #write(Action, JsonGenerator)}, into the buffers it recycles.
+     * @param action Action to wrap
+     * @return JsonSerializable the Action to pass to the ObjectWriter
+     */
+    static JsonSerializable serializable(Action action) {
+        return new Checked(action);
+    }
+
+    /**
+     * Writes an Action that already went through {@link #check(Action, ParserOptions)}.
+     * @param action Action to write
+     * @param generator generator the json is written to
+     */
+    static void write(Action action, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "version", action.getVersion());
+        if (action.getId() != null) {
+            generator.writeStringField("id", action.getId().toString());
+        }
+        writeString(generator, "bundle", action.getBundle());
+        writeString(generator, "application", action.getApplication());
+        writeString(generator, "event_type", action.getEventType());
+        generator.writeFieldName("timestamp");
+        TIMESTAMP_SERIALIZER.serialize(action.getTimestamp(), generator, null);
+        writeString(generator, "account_id", action.getAccountId());
+        writeString(generator, "org_id", action.getOrgId());
+        writeString(generator, "severity", action.getSeverity());
+        if (action.getContext() != null) {
+            generator.writeFieldName("context");
+            writeProperties(generator, action.getContext().getAdditionalProperties());
+        }
+
+        generator.writeArrayFieldStart("events");
+        for (Event event : action.getEvents()) {
+            writeEvent(generator, event);
+        }
+        generator.writeEndArray();
+
+        if (action.getRecipients() != null) {
+            generator.writeArrayFieldStart("recipients");
+            for (Recipient recipient : action.getRecipients()) {
+                writeRecipient(generator, recipient);
+            }
+            generator.writeEndArray();
+        }
+
+        RecipientsAuthorizationCriterion criterion = action.getRecipientsAuthorizationCriterion();
+        if (criterion != null) {
+            generator.writeObjectFieldStart("recipients_authorization_criterion");
+            generator.writeObjectFieldStart("type");
+            generator.writeStringField("name", criterion.getType().getName());
+            generator.writeStringField("namespace", criterion.getType().getNamespace());
+            generator.writeEndObject();
+            generator.writeStringField("relation", criterion.getRelation());
+            generator.writeStringField("id", criterion.getId());
+            generator.writeEndObject();
+        }
+
+        // Defaults
+        if (action.getVersion() == null) {
+            generator.writeStringField("version", Schemas.CURRENT_VERSION);
+        }
+        if (action.getContext() == null) {
+            generator.writeFieldName("context");
+            writeEmptyObject(generator);
+        }
+        if (action.getRecipients() == null) {
+            generator.writeArrayFieldStart("recipients");
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeEvent(JsonGenerator generator, Event event) throws IOException {
+        generator.writeStartObject();
+        if (event.getMetadata() != null) {
+            generator.writeFieldName("metadata");
+            writeProperties(generator, event.getMetadata().getAdditionalProperties());
+        }
+        generator.writeFieldName("payload");
+        writeProperties(generator, event.getPayload().getAdditionalProperties());
+
+        // Defaults
+        if (event.getMetadata() == null) {
+            generator.writeFieldName("metadata");
+            writeEmptyObject(generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeRecipient(JsonGenerator generator, Recipient recipient) throws IOException {
+        generator.writeStartObject();
+        if (recipient.getOnlyAdmins() != null) {
+            generator.writeBooleanField("only_admins", recipient.getOnlyAdmins());
+        }
+        if (recipient.getIgnoreUserPreferences() != null) {
+            generator.writeBooleanField("ignore_user_preferences", recipient.getIgnoreUserPreferences());
+        }
+        writeStrings(generator, "users", recipient.getUsers());
+        writeStrings(generator, "emails", recipient.getEmails());
+        writeStrings(generator, "groups", recipient.getGroups());
+
+        // Defaults
+        if (recipient.getOnlyAdmins() == null) {
+            generator.writeBooleanField("only_admins", false);
+        }
+        if (recipient.getIgnoreUserPreferences() == null) {
+            generator.writeBooleanField("ignore_user_preferences", false);
+        }
+        if (recipient.getUsers() == null) {
+            writeStrings(generator, "users", List.of());
+        }
+        if (recipient.getEmails() == null) {
+            writeStrings(generator, "emails", List.of());
+        }
+        if (recipient.getGroups() == null) {
+            writeStrings(generator, "groups", List.of());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static void writeStrings(JsonGenerator generator, String name, List<String> values) throws IOException {
+        if (values != null) {
+            generator.writeArrayFieldStart(name);
+            for (String value : values) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void writeEmptyObject(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeEndObject();
+    }
+
+    // Context, Metadata and Payload properties accept any json value.
+    private static void writeProperties(JsonGenerator generator, Map<String, Object> properties) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            generator.writeFieldName(property.getKey());
+            writeValue(generator, property.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    /*
+     * The values that map to a json type are written directly. Anything else (BigDecimal, dates, beans...) goes
+     * through a JsonNode, like it did before, since the tree can change how they are written: a BigDecimal loses
+     * its trailing zeros for instance.
+     */
+    @SuppressWarnings("unchecked")
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof Double) {
+            generator.writeNumber((Double) value);
+        } else if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            writeProperties(generator, (Map<String, Object>) value);
+        } else if (value instanceof List) {
+            generator.writeStartArray();
+            for (Object item : (List<?>) value) {
+                writeValue(generator, item);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeTree(Parser.objectMapper.valueToTree(value));
+        }
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void checkAction(Action action) {
+        if (action == null) {
+            errors.type(location.toNodePath(), "null", "object");
+            return;
+        }
+
+        required(action.getBundle(), "bundle");
+        required(action.getApplication(), "application");
+        required(action.getEventType(), "event_type");
+        required(action.getTimestamp(), "timestamp");
+        required(action.getEvents(), "events");
+        required(action.getOrgId(), "org_id");
+
+        if (action.getEvents() != null) {
+            location.push("events");
+            int index = 0;
+            for (Event event : action.getEvents()) {
+                location.push(index++);
+                if (event == null) {
+                    errors.type(location.toNodePath(), "null", "object");
+                } else {
+                    required(event.getPayload(), "payload");
+                }
+                location.pop();
+            }
+            location.pop();
+        }
+
+        if (action.getRecipients() != null) {
+            location.push("recipients");
+            int index = 0;
+            for (Recipient recipient : action.getRecipients()) {
+                location.push(index++);
+                if (recipient == null) {
+                    errors.type(location.toNodePath(), "null", "object");
+                } else {
+                    checkStrings(recipient.getUsers(), "users", false);
+                    checkStrings(recipient.getEmails(), "emails", true);
+                    checkStrings(recipient.getGroups(), "groups", false);
+                }
+                location.pop();
+            }
+            location.pop();
+        }
+
+        RecipientsAuthorizationCriterion criterion = action.getRecipientsAuthorizationCriterion();
+        if (criterion != null) {
+            location.push("recipients_authorization_criterion");
+            required(criterion.getId(), "id");
+            required(criterion.getRelation(), "relation");
+            required(criterion.getType(), "type");
+            if (criterion.getType() != null) {
+                location.push("type");
+                required(criterion.getType().getName(), "name");
+                required(criterion.getType().getNamespace(), "namespace");
+                location.pop();
+            }
+            location.pop();
+        }
+    }
+
+    private void checkStrings(List<String> values, String name, boolean email) {
+        if (values == null) {
+            return;
+        }
+
+        location.push(name);
+        int index = 0;
+        for (String value : values) {
+            location.push(index++);
+            if (value == null) {
+                errors.type(location.toNodePath(), "null", "string");
+            } else if (email && !ActionReader.EMAIL_FORMAT.matches(null, value)) {
+                errors.format(location.toNodePath(), ActionReader.EMAIL_FORMAT, value);
+            }
+            location.pop();
+        }
+        location.pop();
+    }
+
+    private void required(Object value, String property) {
+        if (value == null) {
+            errors.required(location.toNodePath(), property);
+        }
+    }
+
+    private static final class Checked extends JsonSerializable.Base {
+
+        private final Action action;
+
+        private Checked(Action action) {
+            this.action = action;
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            write(action, generator);
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+            write(action, generator);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.redhat.cloud.notifications.ingress;
+
+/**
+ * Outcome of one record of a batch processed by the {@link Parser}: either its value or the exception that
+ * prevented it from being decoded or encoded.
+ * @param <T> type of the value
+ */
+public final class BatchResult<T> {
+
+    private final T value;
+    private final RuntimeException error;
+
+    private BatchResult(T value, RuntimeException error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    static <T> BatchResult<T> success(T value) {
+        return new BatchResult<>(value, null);
+    }
+
+    static <T> BatchResult<T> failure(RuntimeException error) {
+        return new BatchResult<>(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * The value of the record, null if it failed.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Why the record failed, usually a {@link ParsingException} or an {@link java.io.UncheckedIOException} for
+     * malformed json, but any RuntimeException thrown while processing the record. Null if the record succeeded.
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    /**
+     * The value of the record, as returned by the single record methods of the {@link Parser}.
+     * @return T value of the record
+     * @throws RuntimeException the error of the record if it failed
+     */
+    public T get() {
+        if (error != null) {
+            throw error;
+        }
+
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "BatchResult[value=" + value + "]" : "BatchResult[error=" + error + "]";
+    }
+}
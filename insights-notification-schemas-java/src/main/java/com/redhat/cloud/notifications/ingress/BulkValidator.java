@@ -0,0 +1,231 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.networknt.schema.Schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Validates the actions of NDJSON files against a schema, such as archived actions after a schema change, and
+ * aggregates the errors into a {@link ValidationReport} instead of failing on the first invalid record.
+ * <p>
+ * A file is memory-mapped and split into chunks ending on a line break, which are validated in parallel on the
+ * executor. Each line holds one action, blank lines are skipped. Instances are immutable and can be shared between
+ * threads. Also runnable from the command line, with the paths of the files to validate as arguments.
+ */
+public final class BulkValidator {
+
+    /**
+     * Approximate size of the chunks validated in parallel, the actual ones are extended up to the next line break.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    // Mapped at once while looking for the line break ending a chunk.
+    private static final int WINDOW = 64 * 1024;
+
+    private final Schema schema;
+    private final ParserOptions options;
+    private final Executor executor;
+    private final int chunkSize;
+
+    private BulkValidator(Builder builder) {
+        this.schema = builder.schema;
+        this.options = builder.options;
+        this.executor = builder.executor;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Validates each line of the file as an action.
+     * @param file NDJSON file
+     * @return ValidationReport errors aggregated over all the records of the file
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public ValidationReport validate(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<CompletableFuture<ValidationReport.Accumulator>> chunks = new ArrayList<>();
+            long size = channel.size();
+            long start = 0;
+            while (start < size) {
+                long end = Math.min(start + chunkSize, size);
+                if (end < size) {
+                    end = lineEnd(channel, end - 1, size);
+                }
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException("Line starting before byte " + (start + chunkSize) + " is longer than 2 GiB");
+                }
+
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                long offset = start;
+                chunks.add(CompletableFuture.supplyAsync(() -> validate(chunk, offset), executor));
+                start = end;
+            }
+
+            // Merged in the order of the file, so that the first offsets are the first ones.
+            ValidationReport.Accumulator report = new ValidationReport.Accumulator();
+            for (CompletableFuture<ValidationReport.Accumulator> chunk : chunks) {
+                report.merge(chunk.join());
+            }
+            return report.build();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to validate " + file, exception);
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    // Offset right after the first line break from the position, or the end of the file if there is none.
+    private static long lineEnd(FileChannel channel, long position, long size) throws IOException {
+        for (long window = position; window < size; window += WINDOW) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, window, Math.min(WINDOW, size - window));
+            for (int i = 0; i < bytes.limit(); i++) {
+                if (bytes.get(i) == '\n') {
+                    return window + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    private ValidationReport.Accumulator validate(ByteBuffer chunk, long offset) {
+        ValidationReport.Accumulator accumulator = new ValidationReport.Accumulator();
+        // Lines are copied to the heap to be parsed, the buffer grows to the longest one.
+        byte[] line = new byte[8192];
+        int lineStart = 0;
+        int limit = chunk.limit();
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && chunk.get(i) != '\n') {
+                continue;
+            }
+
+            int start = lineStart;
+            int end = i;
+            lineStart = i + 1;
+            while (start < end && isWhitespace(chunk.get(start))) {
+                start++;
+            }
+            while (end > start && isWhitespace(chunk.get(end - 1))) {
+                end--;
+            }
+            if (start == end) {
+                continue;
+            }
+
+            int length = end - start;
+            if (line.length < length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            chunk.position(start);
+            chunk.get(line, 0, length);
+            validate(line, length, offset + start, accumulator);
+        }
+
+        return accumulator;
+    }
+
+    private void validate(byte[] line, int length, long offset, ValidationReport.Accumulator accumulator) {
+        try {
+            Parser.validate(line, 0, length, schema, options);
+            accumulator.valid();
+        } catch (ParsingException exception) {
+            accumulator.invalid(exception, offset);
+        } catch (JsonProcessingException exception) {
+            accumulator.malformed(offset);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * Validates the NDJSON files against the current Action schema and prints their reports.
+     * Exits with 1 if any record is invalid or malformed.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: BulkValidator <file.ndjson>...");
+            System.exit(2);
+        }
+
+        BulkValidator validator = builder().build();
+        boolean failed = false;
+        for (String file : args) {
+            ValidationReport report = validator.validate(Paths.get(file));
+            System.out.println(file + System.lineSeparator() + report);
+            failed |= report.getInvalid() > 0 || report.getMalformed() > 0;
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    public static final class Builder {
+
+        private Schema schema = Schemas.get(Schemas.ACTION);
+        private ParserOptions options = ParserOptions.builder().stacklessRejections(true).build();
+        private Executor executor = ForkJoinPool.commonPool();
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Schema the actions are validated against, the current Action schema by default.
+         */
+        public Builder schema(Schema schema) {
+            this.schema = Objects.requireNonNull(schema);
+            return this;
+        }
+
+        /**
+         * Options of the validation, only rejecting without stack traces by default. Failing fast counts a single
+         * error per invalid record.
+         */
+        public Builder options(ParserOptions options) {
+            this.options = Objects.requireNonNull(options);
+            return this;
+        }
+
+        /**
+         * Executor validating the chunks, the common ForkJoinPool by default.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize < 1 || chunkSize > 1 << 30) {
+                throw new IllegalArgumentException("chunkSize must be between 1 and 1 GiB");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public BulkValidator build() {
+            return new BulkValidator(this);
+        }
+    }
+}
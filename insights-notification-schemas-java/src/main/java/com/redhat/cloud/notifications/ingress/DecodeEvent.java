@@ -0,0 +1,32 @@
+package com.redhat.cloud.notifications.ingress;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.redhat.cloud.notifications.Decode")
+@Label("Action Decode")
+@Description("An Action decoded, or rejected, by the Parser")
+final class DecodeEvent extends ActionEvent {
+
+    private static final EventType TYPE = EventType.getEventType(DecodeEvent.class);
+
+    @Label("Message Size")
+    @Description("Size of the json read, in characters when decoding a String")
+    @DataAmount
+    long size;
+
+    /**
+     * @return the begun event, or null when no recording enables it
+     */
+    static DecodeEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        DecodeEvent event = new DecodeEvent();
+        event.begin();
+        return event;
+    }
+}
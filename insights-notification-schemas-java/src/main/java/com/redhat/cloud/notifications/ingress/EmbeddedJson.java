@@ -0,0 +1,66 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Helpers for the json objects sent as strings in context and events[].payload.
+ */
+final class EmbeddedJson {
+
+    private static final JavaType PROPERTIES_TYPE = Parser.objectMapper.getTypeFactory()
+        .constructMapType(LinkedHashMap.class, String.class, Object.class);
+
+    private EmbeddedJson() {
+    }
+
+    /**
+     * Checks if the text is wrapped in braces, which is all the schema requires from these values
+     * besides being well-formed json.
+     */
+    static boolean isObject(CharSequence text) {
+        int start = 0;
+        int end = text.length() - 1;
+        while (start < end && isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(text.charAt(end))) {
+            end--;
+        }
+
+        return start < end && text.charAt(start) == '{' && text.charAt(end) == '}';
+    }
+
+    static boolean isObject(char[] chars, int offset, int length) {
+        int start = offset;
+        int end = offset + length - 1;
+        while (start < end && isWhitespace(chars[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(chars[end])) {
+            end--;
+        }
+
+        return start < end && chars[start] == '{' && chars[end] == '}';
+    }
+
+    /**
+     * Parses the properties of the json object, as they are bound to the any-setter of the generated classes.
+     * @throws UncheckedIOException if the json is not well-formed
+     */
+    static Map<String, Object> parse(String json) {
+        try {
+            return Parser.objectMapper.readValue(json, PROPERTIES_TYPE);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException("Unable to decode embedded json", exception);
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+}
@@ -0,0 +1,32 @@
+package com.redhat.cloud.notifications.ingress;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.redhat.cloud.notifications.Encode")
+@Label("Action Encode")
+@Description("An Action encoded, or rejected, by the Parser")
+final class EncodeEvent extends ActionEvent {
+
+    private static final EventType TYPE = EventType.getEventType(EncodeEvent.class);
+
+    @Label("Message Size")
+    @Description("Size of the json written, in characters when encoding to a String")
+    @DataAmount
+    long size;
+
+    /**
+     * @return the begun event, or null when no recording enables it
+     */
+    static EncodeEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        EncodeEvent event = new EncodeEvent();
+        event.begin();
+        return event;
+    }
+}
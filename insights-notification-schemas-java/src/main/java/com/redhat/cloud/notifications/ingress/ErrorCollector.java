@@ -0,0 +1,112 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.Error;
+import com.networknt.schema.MessageSourceError;
+import com.networknt.schema.format.Format;
+import com.networknt.schema.i18n.DefaultMessageSource;
+import com.networknt.schema.i18n.MessageSource;
+import com.networknt.schema.path.NodePath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the errors found by the validations that do not go through a {@link com.networknt.schema.Schema},
+ * building the same {@link Error}s (keyword, location and message) the schema would have reported.
+ */
+final class ErrorCollector {
+
+    private static final MessageSource MESSAGE_SOURCE = DefaultMessageSource.getInstance();
+
+    private final List<Error> errors = new ArrayList<>();
+    private final boolean failFast;
+    private final boolean writableStackTrace;
+
+    ErrorCollector() {
+        this(ParserOptions.DEFAULT);
+    }
+
+    ErrorCollector(ParserOptions options) {
+        this.failFast = options.isFailFast();
+        this.writableStackTrace = !options.isStacklessRejections();
+    }
+
+    void type(NodePath location, String found, String expected) {
+        add(error("type", location).arguments(found, expected));
+    }
+
+    void type(NodePath location, JsonNode found, String expected) {
+        type(location, typeName(found), expected);
+    }
+
+    void required(NodePath location, String property) {
+        add(error("required", location).property(property).arguments(property));
+    }
+
+    void additionalProperty(NodePath location, String property) {
+        add(error("additionalProperties", location).property(property).arguments(property));
+    }
+
+    void format(NodePath location, Format format, String value) {
+        add(error("format", location).messageKey(format.getMessageKey()).arguments(format.getName(), value));
+    }
+
+    // The message key is formatted by networknt like the one of the format would be.
+    void format(NodePath location, Format format, String value, String messageKey) {
+        add(error("format", location).messageKey(messageKey).arguments(format.getName(), value));
+    }
+
+    void minLength(NodePath location, int min) {
+        add(error("minLength", location).arguments(min));
+    }
+
+    boolean isEmpty() {
+        return errors.isEmpty();
+    }
+
+    List<Error> getErrors() {
+        return errors;
+    }
+
+    void throwIfAny() {
+        if (!errors.isEmpty()) {
+            throw new ParsingException(errors, writableStackTrace);
+        }
+    }
+
+    // In fail-fast mode, the first error interrupts the validation.
+    private void add(MessageSourceError.Builder builder) {
+        errors.add(builder.build());
+        if (failFast) {
+            throw new ParsingException(errors, writableStackTrace);
+        }
+    }
+
+    // Type names as reported by the type keyword, for which integral numbers are integers.
+    private static String typeName(JsonNode node) {
+        switch (node.getNodeType()) {
+            case OBJECT:
+                return "object";
+            case ARRAY:
+                return "array";
+            case STRING:
+                return "string";
+            case NUMBER:
+                return node.isIntegralNumber() ? "integer" : "number";
+            case BOOLEAN:
+                return "boolean";
+            case NULL:
+                return "null";
+            default:
+                return "unknown";
+        }
+    }
+
+    private static MessageSourceError.Builder error(String keyword, NodePath location) {
+        return MessageSourceError.builder(MESSAGE_SOURCE, null)
+            .keyword(keyword)
+            .messageKey(keyword)
+            .instanceLocation(location);
+    }
+}
@@ -0,0 +1,40 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.networknt.schema.path.NodePath;
+import com.networknt.schema.path.PathType;
+
+/**
+ * Instance location of the value being read or written, only turned into a {@link NodePath} when an error is
+ * reported.
+ */
+final class InstanceLocation {
+
+    private static final int MAX_DEPTH = 8;
+
+    private final String[] names = new String[MAX_DEPTH];
+    private final int[] indexes = new int[MAX_DEPTH];
+    private int depth;
+
+    void push(String name) {
+        names[depth] = name;
+        indexes[depth++] = -1;
+    }
+
+    void push(int index) {
+        names[depth] = null;
+        indexes[depth++] = index;
+    }
+
+    void pop() {
+        depth--;
+    }
+
+    NodePath toNodePath() {
+        NodePath location = new NodePath(PathType.LEGACY);
+        for (int i = 0; i < depth; i++) {
+            location = names[i] != null ? location.append(names[i]) : location.append(indexes[i]);
+        }
+
+        return location;
+    }
+}
@@ -0,0 +1,39 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+
+/**
+ * Payload decoded from a json string, kept as is until one of its properties is used.
+ * A malformed json is only reported then, with an {@link java.io.UncheckedIOException}.
+ * <p>
+ * Its additional properties are a {@link LazyProperties}, so that the generated {@link Payload#equals(Object)},
+ * hashCode and toString parse the json when they read them, from this instance or from a plain Payload compared to it.
+ */
+final class LazyPayload extends Payload {
+
+    private static final VarHandle ADDITIONAL_PROPERTIES = LazyProperties.additionalProperties(Payload.class);
+
+    private final LazyProperties properties;
+
+    LazyPayload(String json) {
+        this.properties = new LazyProperties(json);
+        ADDITIONAL_PROPERTIES.set(this, properties);
+    }
+
+    /**
+     * The json this Payload was decoded from, or null once it has been parsed.
+     */
+    String getJson() {
+        return properties.getJson();
+    }
+
+    @JsonAnyGetter
+    @Override
+    public Map<String, Object> getAdditionalProperties() {
+        properties.parse();
+        return super.getAdditionalProperties();
+    }
+}
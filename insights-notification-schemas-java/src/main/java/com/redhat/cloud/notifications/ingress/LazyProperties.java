@@ -0,0 +1,141 @@
+package com.redhat.cloud.notifications.ingress;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Properties of a context or payload sent as a json string, parsed when first used.
+ * <p>
+ * Installed as the map of additional properties of the generated class, which its equals, hashCode and toString read
+ * directly, so that a plain instance and a lazy one compare the same from either side. The json is parsed at most
+ * once, a decoded Action can be shared between threads. A malformed json is reported with an
+ * {@link java.io.UncheckedIOException} each time the properties are used.
+ */
+final class LazyProperties implements Map<String, Object> {
+
+    private volatile String json;
+    // Written before the json is cleared, which publishes it to the threads that see the json cleared.
+    private Map<String, Object> properties;
+
+    LazyProperties(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Handle on the private map of additional properties of a generated class.
+     */
+    static VarHandle additionalProperties(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup()).findVarHandle(type, "additionalProperties", Map.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException(type.getName() + " has no additionalProperties map", exception);
+        }
+    }
+
+    /**
+     * The json the properties are parsed from, or null once they have been parsed.
+     */
+    String getJson() {
+        return json;
+    }
+
+    /**
+     * Parses the json if it has not been parsed yet.
+     * @throws java.io.UncheckedIOException if the json is not well-formed
+     */
+    void parse() {
+        properties();
+    }
+
+    private Map<String, Object> properties() {
+        if (json != null) {
+            synchronized (this) {
+                String pending = json;
+                if (pending != null) {
+                    properties = EmbeddedJson.parse(pending);
+                    json = null;
+                }
+            }
+        }
+
+        return properties;
+    }
+
+    @Override
+    public int size() {
+        return properties().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return properties().isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return properties().containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return properties().containsValue(value);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return properties().get(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return properties().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return properties().remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        properties().putAll(map);
+    }
+
+    @Override
+    public void clear() {
+        properties().clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return properties().keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return properties().values();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return properties().entrySet();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this || properties().equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return properties().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return properties().toString();
+    }
+}
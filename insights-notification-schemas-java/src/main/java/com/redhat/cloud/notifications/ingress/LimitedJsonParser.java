@@ -0,0 +1,172 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+import java.io.IOException;
+
+/**
+ * Enforces the {@link ParserLimits} on the tokens of an action as they are read, for both the tree and the streaming
+ * decoding. The counts are derived from the parsing context of each token, so nothing is buffered: an action is
+ * rejected as soon as the token that exceeds a limit is read. The sizes are the offsets of the input, in bytes for
+ * UTF-8 json and in characters for a String or a Reader.
+ */
+class LimitedJsonParser extends JsonParserDelegate {
+
+    private final ParserLimits limits;
+    private final long start;
+    // Nesting depth of the action object, which is not at the root when it is an element of an array.
+    private final int actionDepth;
+
+    // Start offset and depth of the context or payload object being read, -1 when there is none.
+    private long embeddedStart = -1L;
+    private int embeddedDepth;
+    private String embeddedName;
+
+    LimitedJsonParser(JsonParser parser, ParserLimits limits) {
+        super(parser);
+        this.limits = limits;
+        this.start = Parser.offset(parser.currentTokenLocation());
+        int depth = parser.getParsingContext().getNestingDepth();
+        this.actionDepth = parser.currentToken() == JsonToken.START_OBJECT ? depth : depth + 1;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate.nextToken();
+        if (token != null) {
+            check(token);
+        }
+        return token;
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        if (token == JsonToken.FIELD_NAME) {
+            token = nextToken();
+        }
+        return token;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        delegate.skipChildren();
+        long offset = Parser.offset(delegate.currentLocation());
+        checkBytes(offset);
+        checkEmbedded(offset);
+        return this;
+    }
+
+    private void check(JsonToken token) throws IOException {
+        long offset = Parser.offset(delegate.currentLocation());
+        checkBytes(offset);
+        checkEmbedded(offset);
+
+        if (token == JsonToken.FIELD_NAME || token.isStructEnd()) {
+            return;
+        }
+
+        // The context of a start token is the container it opens, the value itself sits in the parent one.
+        JsonStreamContext context = delegate.getParsingContext();
+        if (token.isStructStart()) {
+            int depth = context.getNestingDepth() - actionDepth + 1;
+            if (depth > limits.getMaxDepth()) {
+                throw exceeded("Nesting depth (" + depth + ")", limits.getMaxDepth());
+            }
+            context = context.getParent();
+        }
+
+        if (context.inArray()) {
+            checkCount(context);
+        } else if (isEmbeddedJson(context)) {
+            if (token == JsonToken.VALUE_STRING) {
+                // The string is read in full first, its json is then measured like an object, quotes and escapes included.
+                delegate.getTextLength();
+                long size = Parser.offset(delegate.currentLocation()) - Parser.offset(delegate.currentTokenLocation());
+                if (size > limits.getMaxEmbeddedJsonBytes()) {
+                    throw exceeded("Size of " + context.getCurrentName() + " (" + size + ")", limits.getMaxEmbeddedJsonBytes());
+                }
+            } else if (token == JsonToken.START_OBJECT && embeddedStart < 0) {
+                embeddedStart = Parser.offset(delegate.currentTokenLocation());
+                embeddedDepth = delegate.getParsingContext().getNestingDepth();
+                embeddedName = context.getCurrentName();
+            }
+        }
+    }
+
+    private void checkBytes(long offset) throws StreamConstraintsException {
+        if (offset - start > limits.getMaxBytes()) {
+            throw exceeded("Action length (" + (offset - start) + ")", limits.getMaxBytes());
+        }
+    }
+
+    private void checkEmbedded(long offset) throws StreamConstraintsException {
+        if (embeddedStart < 0) {
+            return;
+        }
+
+        if (offset - embeddedStart > limits.getMaxEmbeddedJsonBytes()) {
+            throw exceeded("Size of " + embeddedName + " (" + (offset - embeddedStart) + ")", limits.getMaxEmbeddedJsonBytes());
+        }
+        if (delegate.getParsingContext().getNestingDepth() < embeddedDepth) {
+            embeddedStart = -1L;
+        }
+    }
+
+    // Counts the elements of the events, recipients and recipients[].users/emails arrays, the index being 0-based.
+    private void checkCount(JsonStreamContext array) throws StreamConstraintsException {
+        int count = array.getCurrentIndex() + 1;
+        JsonStreamContext owner = array.getParent();
+        String name = owner.getCurrentName();
+        if (isAction(owner)) {
+            if ("events".equals(name) && count > limits.getMaxEvents()) {
+                throw exceeded("Number of events", limits.getMaxEvents());
+            } else if ("recipients".equals(name) && count > limits.getMaxRecipients()) {
+                throw exceeded("Number of recipients", limits.getMaxRecipients());
+            }
+        } else if (isRecipient(owner)) {
+            if ("users".equals(name) && count > limits.getMaxUsers()) {
+                throw exceeded("Number of users", limits.getMaxUsers());
+            } else if ("emails".equals(name) && count > limits.getMaxEmails()) {
+                throw exceeded("Number of emails", limits.getMaxEmails());
+            }
+        }
+    }
+
+    // The context of the action, and the payload of each event.
+    private boolean isEmbeddedJson(JsonStreamContext object) {
+        if (!object.inObject()) {
+            return false;
+        }
+
+        String name = object.getCurrentName();
+        if ("context".equals(name)) {
+            return isAction(object);
+        } else if ("payload".equals(name)) {
+            JsonStreamContext events = object.getParent();
+            return events.inArray() && isAction(events.getParent()) && "events".equals(events.getParent().getCurrentName());
+        }
+        return false;
+    }
+
+    private boolean isAction(JsonStreamContext context) {
+        return context.inObject() && context.getNestingDepth() == actionDepth;
+    }
+
+    private boolean isRecipient(JsonStreamContext context) {
+        if (!context.inObject()) {
+            return false;
+        }
+
+        JsonStreamContext recipients = context.getParent();
+        return recipients.inArray() && isAction(recipients.getParent()) && "recipients".equals(recipients.getParent().getCurrentName());
+    }
+
+    private StreamConstraintsException exceeded(String what, long max) {
+        return new StreamConstraintsException(what + " exceeds the maximum allowed (" + max + ")", delegate.currentLocation());
+    }
+}
@@ -0,0 +1,152 @@
+package com.redhat.cloud.notifications.ingress;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the measurements of the {@link Parser} in {@link LongAdder}s, which stay cheap when many threads record
+ * at the same time. The totals only grow, exporters are expected to poll them.
+ * <p>
+ * The validation failures are counted by keyword and by instance location, with the array indices of the location
+ * replaced by {@code [*]}, e.g. {@code $.events[*].payload}, so that the number of counters does not depend on the
+ * size of the arrays sent by the producers.
+ */
+public final class LongAdderParserMetrics implements ParserMetrics {
+
+    private final LongAdder[] stageCounts = adders(Stage.values().length);
+    private final LongAdder[] stageNanos = adders(Stage.values().length);
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final ConcurrentMap<Failure, LongAdder> validationFailures = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordStage(Stage stage, long nanos) {
+        stageCounts[stage.ordinal()].increment();
+        stageNanos[stage.ordinal()].add(nanos);
+    }
+
+    @Override
+    public void recordBytesIn(long bytes) {
+        bytesIn.add(bytes);
+    }
+
+    @Override
+    public void recordBytesOut(long bytes) {
+        bytesOut.add(bytes);
+    }
+
+    @Override
+    public void recordEvents(int events) {
+        this.events.add(events);
+    }
+
+    @Override
+    public void recordValidationFailure(String keyword, String instanceLocation) {
+        validationFailures.computeIfAbsent(new Failure(keyword, withoutIndices(instanceLocation)), failure -> new LongAdder()).increment();
+    }
+
+    public long getStageCount(Stage stage) {
+        return stageCounts[stage.ordinal()].sum();
+    }
+
+    public long getStageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()].sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public long getEvents() {
+        return events.sum();
+    }
+
+    /**
+     * @param keyword schema keyword that failed
+     * @param instanceLocation location of the value that failed, with or without its array indices
+     * @return long number of failures of the keyword at that location, whatever the array indices
+     */
+    public long getValidationFailures(String keyword, String instanceLocation) {
+        LongAdder failures = validationFailures.get(new Failure(keyword, withoutIndices(instanceLocation)));
+        return failures == null ? 0L : failures.sum();
+    }
+
+    /**
+     * @return Map snapshot of the validation failures, by keyword then by instance location without array indices
+     */
+    public Map<String, Map<String, Long>> getValidationFailures() {
+        Map<String, Map<String, Long>> snapshot = new LinkedHashMap<>();
+        validationFailures.forEach((failure, count) ->
+            snapshot.computeIfAbsent(failure.keyword, keyword -> new LinkedHashMap<>()).put(failure.instanceLocation, count.sum()));
+        return snapshot;
+    }
+
+    // $.recipients[3].emails[987] becomes $.recipients[*].emails[*], a location without any index is returned as is.
+    static String withoutIndices(String instanceLocation) {
+        if (instanceLocation == null || instanceLocation.indexOf('[') < 0) {
+            return instanceLocation;
+        }
+
+        StringBuilder builder = new StringBuilder(instanceLocation.length());
+        int length = instanceLocation.length();
+        int i = 0;
+        while (i < length) {
+            char c = instanceLocation.charAt(i++);
+            builder.append(c);
+            if (c == '[') {
+                int end = i;
+                while (end < length && instanceLocation.charAt(end) >= '0' && instanceLocation.charAt(end) <= '9') {
+                    end++;
+                }
+                if (end > i && end < length && instanceLocation.charAt(end) == ']') {
+                    builder.append('*');
+                    i = end;
+                }
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+
+        return adders;
+    }
+
+    private static final class Failure {
+
+        private final String keyword;
+        private final String instanceLocation;
+
+        private Failure(String keyword, String instanceLocation) {
+            this.keyword = keyword;
+            this.instanceLocation = instanceLocation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Failure failure = (Failure) o;
+            return Objects.equals(keyword, failure.keyword) && Objects.equals(instanceLocation, failure.instanceLocation);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(keyword) + Objects.hashCode(instanceLocation);
+        }
+    }
+}
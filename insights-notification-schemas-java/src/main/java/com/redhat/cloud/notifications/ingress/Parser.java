@@ -1,49 +1,83 @@
 package com.redhat.cloud.notifications.ingress;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.networknt.schema.walk.ApplyDefaultsStrategy;
-import com.networknt.schema.format.Formats;
-import com.networknt.schema.dialect.Dialect;
-import com.networknt.schema.dialect.BasicDialectRegistry;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.FailFastAssertionException;
 import com.networknt.schema.Schema;
-import com.networknt.schema.SchemaException;
-import com.networknt.schema.SchemaRegistry;
-import com.networknt.schema.keyword.AnnotationKeyword;
-import com.networknt.schema.path.PathType;
-import com.networknt.schema.ExecutionConfig;
-import com.networknt.schema.SchemaRegistryConfig;
-import com.networknt.schema.SpecificationVersion;
-import com.networknt.schema.dialect.Dialects;
-import com.networknt.schema.Result;
+import com.networknt.schema.Error;
+import com.networknt.schema.walk.WalkConfig;
+import com.redhat.cloud.notifications.ingress.ParserMetrics.Stage;
 import com.redhat.cloud.notifications.jackson.LocalDateTimeModule;
-import com.redhat.cloud.notifications.validator.LocalDateTimeValidator;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 public class Parser {
 
     final static ObjectMapper objectMapper = new ObjectMapper();
+    private final static ObjectWriter actionWriter;
     private final static Schema jsonSchema;
+    private final static Schema actionOutJsonSchema;
 
-    private final static String ACTION_SCHEMA_PATH = "/schemas/Action.json";
-    private final static String ACTION_OUT_SCHEMA_PATH = "/schemas/Action-out.json";
+    // Built once so that validations only have to set it on their ExecutionContext.
+    private final static WalkConfig walkConfig = WalkConfig.builder()
+        .applyDefaultsStrategy(applyDefaults -> {
+            applyDefaults.applyArrayDefaults(true)
+                .applyPropertyDefaults(true)
+                .applyPropertyDefaultsIfNull(true);
+        })
+        .build();
+    final static Consumer<ExecutionContext> applyDefaults = executionContext -> executionContext.setWalkConfig(walkConfig);
+    private final static Consumer<ExecutionContext> failFast = executionContext -> executionContext.setFailFast(true);
+    private final static Consumer<ExecutionContext> applyDefaultsFailFast = applyDefaults.andThen(failFast);
+    private final static Consumer<ExecutionContext> validateOnly = executionContext -> { };
 
+    private static volatile ParserMetrics metrics = loadMetrics();
+
+    private final static String VERSION_FIELD = "version";
     private final static String CONTEXT_FIELD = "context";
     private final static String EVENTS_FIELD = "events";
     private final static String PAYLOAD_FIELD = "payload";
 
     static {
-        jsonSchema = getJsonSchema(ACTION_SCHEMA_PATH);
+        jsonSchema = Schemas.get(Schemas.ACTION);
+        actionOutJsonSchema = Schemas.get(Schemas.ACTION_OUT);
         objectMapper.registerModule(new LocalDateTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        actionWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
@@ -53,17 +87,466 @@ public class Parser {
      * @return Action valid Action
      */
     public static Action decode(String actionJson) {
+        return decode(actionJson, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and decodes the json string to an Action
+     * - Default values are set for supported values (see schema)
+     * @param actionJson json-serialized Action
+     * @param options options to decode the Action
+     * @return Action valid Action
+     */
+    public static Action decode(String actionJson, ParserOptions options) {
         try {
-            JsonNode action = objectMapper.readTree(actionJson);
-            updateContextAndPayload(action, objectMapper);
-            validate(action, jsonSchema);
+            checkLength(actionJson.length(), options);
+            return decode(objectMapper.createParser(actionJson), options);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to decode action", exception);
+        }
+    }
 
-            return objectMapper.treeToValue(action, Action.class);
-        } catch (JsonProcessingException exception) {
+    /**
+     * Validates and decodes the UTF-8 json bytes to an Action
+     * - Default values are set for supported values (see schema)
+     * @param actionJson json-serialized Action
+     * @return Action valid Action
+     */
+    public static Action decode(byte[] actionJson) {
+        return decode(actionJson, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and decodes the UTF-8 json bytes to an Action
+     * - Default values are set for supported values (see schema)
+     * @param actionJson json-serialized Action
+     * @param options options to decode the Action
+     * @return Action valid Action
+     */
+    public static Action decode(byte[] actionJson, ParserOptions options) {
+        try {
+            checkLength(actionJson.length, options);
+            return decode(objectMapper.createParser(actionJson), options);
+        } catch (IOException exception) {
             throw new UncheckedIOException("Unable to decode action", exception);
         }
     }
 
+    /**
+     * Validates and decodes the remaining UTF-8 json bytes of the buffer to an Action
+     * - Default values are set for supported values (see schema)
+     * - The position of the buffer is not modified
+     * @param actionJson json-serialized Action
+     * @return Action valid Action
+     */
+    public static Action decode(ByteBuffer actionJson) {
+        return decode(actionJson, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and decodes the remaining UTF-8 json bytes of the buffer to an Action
+     * - Default values are set for supported values (see schema)
+     * - The position of the buffer is not modified
+     * @param actionJson json-serialized Action
+     * @param options options to decode the Action
+     * @return Action valid Action
+     */
+    public static Action decode(ByteBuffer actionJson, ParserOptions options) {
+        try {
+            checkLength(actionJson.remaining(), options);
+            if (actionJson.hasArray()) {
+                byte[] bytes = actionJson.array();
+                int offset = actionJson.arrayOffset() + actionJson.position();
+                return decode(objectMapper.createParser(bytes, offset, actionJson.remaining()), options);
+            }
+
+            return decode(objectMapper.createParser(new ByteBufferBackedInputStream(actionJson.duplicate())), options);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to decode action", exception);
+        }
+    }
+
+    /**
+     * Validates and decodes the UTF-8 json stream to an Action
+     * - Default values are set for supported values (see schema)
+     * - The stream is closed once the Action is read
+     * @param actionJson json-serialized Action
+     * @return Action valid Action
+     */
+    public static Action decode(InputStream actionJson) {
+        return decode(actionJson, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and decodes the UTF-8 json stream to an Action
+     * - Default values are set for supported values (see schema)
+     * - The stream is closed once the Action is read
+     * @param actionJson json-serialized Action
+     * @param options options to decode the Action
+     * @return Action valid Action
+     */
+    public static Action decode(InputStream actionJson, ParserOptions options) {
+        try {
+            return decode(objectMapper.createParser(actionJson), options);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to decode action", exception);
+        }
+    }
+
+    /**
+     * Reads the routing fields of the UTF-8 json bytes without decoding the Action
+     * - The fields are not validated, a missing field or a field that is not a string is null
+     * - The bytes are only read until all the fields were found
+     * @param actionJson json-serialized Action
+     * @return ActionHeader routing fields of the Action
+     */
+    public static ActionHeader peek(byte[] actionJson) {
+        try {
+            return peek(objectMapper.createParser(actionJson));
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to peek action", exception);
+        }
+    }
+
+    /**
+     * Reads the routing fields of the remaining UTF-8 json bytes of the buffer without decoding the Action
+     * - The fields are not validated, a missing field or a field that is not a string is null
+     * - The bytes are only read until all the fields were found
+     * - The position of the buffer is not modified
+     * @param actionJson json-serialized Action
+     * @return ActionHeader routing fields of the Action
+     */
+    public static ActionHeader peek(ByteBuffer actionJson) {
+        try {
+            if (actionJson.hasArray()) {
+                return peek(objectMapper.createParser(actionJson.array(), actionJson.arrayOffset() + actionJson.position(), actionJson.remaining()));
+            }
+
+            return peek(objectMapper.createParser(new ByteBufferBackedInputStream(actionJson.duplicate())));
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to peek action", exception);
+        }
+    }
+
+    /**
+     * Reads the routing fields of the json string without decoding the Action
+     * - The fields are not validated, a missing field or a field that is not a string is null
+     * - The string is only read until all the fields were found
+     * @param actionJson json-serialized Action
+     * @return ActionHeader routing fields of the Action
+     */
+    public static ActionHeader peek(String actionJson) {
+        try {
+            return peek(objectMapper.createParser(actionJson));
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to peek action", exception);
+        }
+    }
+
+    private static ActionHeader peek(JsonParser parser) throws IOException {
+        try (parser) {
+            return ActionHeader.read(parser);
+        }
+    }
+
+    /**
+     * Validates and decodes each of the UTF-8 json records to an Action
+     * - Default values are set for supported values (see schema)
+     * - A record that cannot be decoded does not prevent the others from being decoded
+     * @param actionsJson json-serialized Actions
+     * @return List results in the same order as the records
+     */
+    public static List<BatchResult<Action>> decodeBatch(List<byte[]> actionsJson) {
+        return decodeBatch(actionsJson, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and decodes each of the UTF-8 json records to an Action
+     * - Default values are set for supported values (see schema)
+     * - A record that cannot be decoded does not prevent the others from being decoded
+     * @param actionsJson json-serialized Actions
+     * @param options options to decode the Actions
+     * @return List results in the same order as the records
+     */
+    public static List<BatchResult<Action>> decodeBatch(List<byte[]> actionsJson, ParserOptions options) {
+        List<BatchResult<Action>> results = new ArrayList<>(actionsJson.size());
+        for (byte[] actionJson : actionsJson) {
+            results.add(decodeRecord(actionJson, options));
+        }
+
+        return results;
+    }
+
+    /**
+     * Validates and decodes each of the UTF-8 json records to an Action, in parallel on the common ForkJoinPool
+     * - Default values are set for supported values (see schema)
+     * - A record that cannot be decoded does not prevent the others from being decoded
+     * - At most {@link ParserOptions#getMaxInFlight()} records are decoded at the same time
+     * @param actionsJson json-serialized Actions
+     * @param options options to decode the Actions
+     * @return List results in the same order as the records
+     */
+    public static List<BatchResult<Action>> decodeBatchInParallel(List<byte[]> actionsJson, ParserOptions options) {
+        return decodeBatch(actionsJson, options, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validates and decodes each of the UTF-8 json records to an Action, in parallel on the executor
+     * - Default values are set for supported values (see schema)
+     * - A record that cannot be decoded does not prevent the others from being decoded
+     * - At most {@link ParserOptions#getMaxInFlight()} records are decoded at the same time, the calling thread
+     *   waits for a slot before submitting the next one and decodes the records rejected by the executor itself
+     * - The calling thread must not be one the executor depends on to run the records
+     * @param actionsJson json-serialized Actions
+     * @param options options to decode the Actions
+     * @param executor executor running the records, such as a virtual thread per task executor
+     * @return List results in the same order as the records
+     * @throws CancellationException if the calling thread is interrupted while waiting for the records
+     */
+    public static List<BatchResult<Action>> decodeBatch(List<byte[]> actionsJson, ParserOptions options, Executor executor) {
+        @SuppressWarnings("unchecked")
+        BatchResult<Action>[] results = new BatchResult[actionsJson.size()];
+        Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+        CountDownLatch done = new CountDownLatch(results.length);
+
+        try {
+            int index = 0;
+            for (byte[] actionJson : actionsJson) {
+                int position = index++;
+                Runnable task = () -> {
+                    try {
+                        results[position] = decodeRecord(actionJson, options);
+                    } finally {
+                        inFlight.release();
+                        done.countDown();
+                    }
+                };
+
+                inFlight.acquire();
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException exception) {
+                    task.run();
+                }
+            }
+
+            // The latch makes the results written by the executor threads visible here.
+            done.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            CancellationException cancellation = new CancellationException("Interrupted while decoding the batch");
+            cancellation.initCause(exception);
+            throw cancellation;
+        }
+
+        return List.of(results);
+    }
+
+    static BatchResult<Action> decodeRecord(byte[] actionJson, ParserOptions options) {
+        try {
+            return BatchResult.success(decode(actionJson, options));
+        } catch (RuntimeException exception) {
+            // Any failure, including one of a metrics implementation, stays within its record.
+            return BatchResult.failure(exception);
+        }
+    }
+
+    // Rejects an action whose size is known upfront without parsing any of it.
+    private static void checkLength(long length, ParserOptions options) throws StreamConstraintsException {
+        long maxBytes = options.getLimits().getMaxBytes();
+        if (length > maxBytes) {
+            throw new StreamConstraintsException("Action length (" + length + ") exceeds the maximum allowed (" + maxBytes + ")");
+        }
+    }
+
+    /**
+     * Validates and decodes the Actions of a UTF-8 json stream one at a time, as NDJSON or as a single json array
+     * - Default values are set for supported values (see schema)
+     * - An Action that cannot be decoded does not prevent the next ones from being decoded
+     * - The stream is closed once all the Actions are read, or when the returned stream is closed
+     * @param actionsJson json-serialized Actions
+     * @return ActionStream results in the same order as the Actions
+     */
+    public static ActionStream stream(InputStream actionsJson) {
+        return stream(actionsJson, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and decodes the Actions of a UTF-8 json stream one at a time, as NDJSON or as a single json array
+     * - Default values are set for supported values (see schema)
+     * - An Action that cannot be decoded does not prevent the next ones from being decoded
+     * - The stream is closed once all the Actions are read, or when the returned stream is closed
+     * @param actionsJson json-serialized Actions
+     * @param options options to decode the Actions
+     * @return ActionStream results in the same order as the Actions
+     */
+    public static ActionStream stream(InputStream actionsJson, ParserOptions options) {
+        try {
+            return new ActionStream(objectMapper.createParser(actionsJson), options);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to decode actions", exception);
+        }
+    }
+
+    /**
+     * Validates and decodes the Actions of a UTF-8 json channel one at a time, as NDJSON or as a single json array
+     * - Default values are set for supported values (see schema)
+     * - An Action that cannot be decoded does not prevent the next ones from being decoded
+     * - The channel is closed once all the Actions are read, or when the returned stream is closed
+     * @param actionsJson json-serialized Actions
+     * @param options options to decode the Actions
+     * @return ActionStream results in the same order as the Actions
+     */
+    public static ActionStream stream(ReadableByteChannel actionsJson, ParserOptions options) {
+        return stream(Channels.newInputStream(actionsJson), options);
+    }
+
+    /**
+     * Validates and decodes the Actions of a UTF-8 json stream as they are requested, as NDJSON or as a single json array
+     * - Default values are set for supported values (see schema)
+     * - An Action that cannot be decoded does not prevent the next ones from being decoded
+     * - Only the requested Actions are decoded, on the executor, and the publisher can only be subscribed to once
+     * - The stream is closed once all the Actions are read, or when the subscription is cancelled
+     * @param actionsJson json-serialized Actions
+     * @param options options to decode the Actions
+     * @param executor executor decoding the Actions and signalling the subscriber
+     * @return Publisher results in the same order as the Actions
+     */
+    public static Flow.Publisher<BatchResult<Action>> publish(InputStream actionsJson, ParserOptions options, Executor executor) {
+        return new ActionPublisher(stream(actionsJson, options), Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Validates and decodes the Actions of a UTF-8 json channel as they are requested, as NDJSON or as a single json array
+     * - Default values are set for supported values (see schema)
+     * - An Action that cannot be decoded does not prevent the next ones from being decoded
+     * - Only the requested Actions are decoded, on the executor, and the publisher can only be subscribed to once
+     * - The channel is closed once all the Actions are read, or when the subscription is cancelled
+     * @param actionsJson json-serialized Actions
+     * @param options options to decode the Actions
+     * @param executor executor decoding the Actions and signalling the subscriber
+     * @return Publisher results in the same order as the Actions
+     */
+    public static Flow.Publisher<BatchResult<Action>> publish(ReadableByteChannel actionsJson, ParserOptions options, Executor executor) {
+        return publish(Channels.newInputStream(actionsJson), options, executor);
+    }
+
+    private static Action decode(JsonParser parser, ParserOptions options) throws IOException {
+        try (parser) {
+            parser.nextToken();
+            return decodeNext(parser, options);
+        }
+    }
+
+    /**
+     * Decodes the Action starting at the current token of the parser, which is left on the last token of the Action.
+     * The parser is not closed, so that the next Action can be read from it.
+     */
+    static Action decodeNext(JsonParser parser, ParserOptions options) throws IOException {
+        long start = offset(parser.currentTokenLocation());
+        if (!options.getLimits().isUnlimited()) {
+            parser = new LimitedJsonParser(parser, options.getLimits());
+        }
+
+        DecodeEvent event = DecodeEvent.start();
+        Action decoded = null;
+        String outcome = ActionEvent.FAILURE;
+        try {
+            decoded = read(parser, options, start);
+            outcome = ActionEvent.SUCCESS;
+            return decoded;
+        } catch (ParsingException exception) {
+            outcome = ActionEvent.INVALID;
+            throw exception;
+        } finally {
+            if (event != null && event.shouldCommit()) {
+                event.size = offset(parser.currentLocation()) - start;
+                event.set(decoded, outcome);
+                event.commit();
+            }
+        }
+    }
+
+    private static Action read(JsonParser parser, ParserOptions options, long start) throws IOException {
+        ParserMetrics metrics = Parser.metrics;
+        long time = startTime(metrics);
+        JsonParser source = parser;
+        boolean streaming = options.isStreaming();
+        if (streaming && !options.getVersions().isEmpty()) {
+            // Older versions are decoded through the tree, the version is found within the same pass over the json.
+            ActionVersions.Versioned versioned = ActionVersions.readVersion(parser);
+            source = versioned.getParser();
+            streaming = options.getVersions().get(versioned.getVersion()) == null;
+        }
+
+        if (streaming) {
+            Action decoded;
+            try {
+                decoded = ActionReader.read(source, options);
+            } catch (ParsingException exception) {
+                recordStage(metrics, Stage.READ, time);
+                recordFailures(metrics, exception);
+                throw exception;
+            }
+
+            complete(decoded, options);
+            recordStage(metrics, Stage.READ, time);
+            recordDecoded(metrics, parser, start, decoded);
+            return decoded;
+        }
+
+        JsonNode action = objectMapper.readTree(source);
+        if (action == null) {
+            action = MissingNode.getInstance();
+        }
+        time = recordStage(metrics, Stage.READ, time);
+
+        String[] embeddedJson = updateContextAndPayload(action, objectMapper, options.isLazyEmbeddedJson());
+        recordStage(metrics, Stage.EMBEDDED_JSON, time);
+        ActionVersions.Version version = options.getVersions().get(action.path(VERSION_FIELD).textValue());
+        if (version != null) {
+            validate(action, version.getSchema(), options, options.isApplyDefaults());
+            version.getUpgrader().upgrade((ObjectNode) action);
+            ((ObjectNode) action).put(VERSION_FIELD, Schemas.CURRENT_VERSION);
+        }
+        // The defaults are set on the Action once bound, rather than on the tree.
+        validate(action, jsonSchema, options, false);
+        time = startTime(metrics);
+
+        Action decoded = objectMapper.treeToValue(action, Action.class);
+        if (embeddedJson != null) {
+            setLazyContextAndPayload(decoded, embeddedJson);
+        }
+        if (options.getStringTable() != null) {
+            canonicalize(decoded, options.getStringTable());
+        }
+        complete(decoded, options);
+        recordStage(metrics, Stage.BIND, time);
+
+        recordDecoded(metrics, parser, start, decoded);
+        return decoded;
+    }
+
+    // Steps run on the bound Action, whichever way it was decoded.
+    private static void complete(Action action, ParserOptions options) {
+        if (options.isApplyDefaults()) {
+            ActionDefaults.apply(action);
+        }
+        if (options.isCompactRecipients()) {
+            RecipientsCompactor.compact(action, options.getStringTable());
+        }
+    }
+
+    // The tree already holds a String for each value, only the copies retained by the Action are shared.
+    private static void canonicalize(Action action, StringTable stringTable) {
+        action.setVersion(stringTable.canonicalize(action.getVersion()));
+        action.setBundle(stringTable.canonicalize(action.getBundle()));
+        action.setApplication(stringTable.canonicalize(action.getApplication()));
+        action.setEventType(stringTable.canonicalize(action.getEventType()));
+        action.setOrgId(stringTable.canonicalize(action.getOrgId()));
+        action.setSeverity(stringTable.canonicalize(action.getSeverity()));
+    }
+
     /**
      * Validates and encodes an Action to a json-string
      * - Default values are set for supported values (see schema)
@@ -71,13 +554,197 @@ public class Parser {
      * @return String json-serialized action.
      */
     public static String encode(Action action) {
+        return encode(action, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and encodes an Action to a json-string
+     * - Default values are set for supported values (see schema)
+     * @param action Action to be encoded
+     * @param options options to encode the Action
+     * @return String json-serialized action.
+     */
+    public static String encode(Action action, ParserOptions options) {
+        EncodeEvent event = EncodeEvent.start();
+        String encoded = null;
+        String outcome = ActionEvent.FAILURE;
+        try {
+            encoded = write(action, options);
+            outcome = ActionEvent.SUCCESS;
+            return encoded;
+        } catch (ParsingException exception) {
+            outcome = ActionEvent.INVALID;
+            throw exception;
+        } finally {
+            if (event != null && event.shouldCommit()) {
+                event.size = encoded == null ? 0 : encoded.length();
+                event.set(action, outcome);
+                event.commit();
+            }
+        }
+    }
+
+    private static String write(Action action, ParserOptions options) {
+        ParserMetrics metrics = Parser.metrics;
+        long time = startTime(metrics);
         try {
-            JsonNode asNode = objectMapper.valueToTree(action);
-            validate(asNode, jsonSchema);
+            String encoded;
+            if (options.isStreaming()) {
+                check(metrics, action, options, time);
+                encoded = actionWriter.writeValueAsString(ActionWriter.serializable(action));
+            } else {
+                JsonNode asNode = toTree(metrics, action, options, time);
+                time = startTime(metrics);
+                encoded = objectMapper.writeValueAsString(asNode);
+            }
 
-            return objectMapper.writeValueAsString(asNode);
-        } catch (JsonProcessingException exception) {
+            recordStage(metrics, Stage.WRITE, time);
+            recordEncoded(metrics, action, encoded.length());
+            return encoded;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to encode action", exception);
+        }
+    }
+
+    /**
+     * Validates and encodes an Action as UTF-8 json to the stream
+     * - Default values are set for supported values (see schema)
+     * - The stream is flushed but not closed
+     * @param action Action to be encoded
+     * @param outputStream stream the json-serialized action is written to
+     */
+    public static void encodeTo(Action action, OutputStream outputStream) {
+        encodeTo(action, outputStream, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and encodes an Action as UTF-8 json to the stream
+     * - Default values are set for supported values (see schema)
+     * - The stream is flushed but not closed
+     * - Nothing is written if the Action is not valid
+     * @param action Action to be encoded
+     * @param outputStream stream the json-serialized action is written to
+     * @param options options to encode the Action
+     */
+    public static void encodeTo(Action action, OutputStream outputStream, ParserOptions options) {
+        EncodeEvent event = EncodeEvent.start();
+        ParserMetrics metrics = Parser.metrics;
+        long time = startTime(metrics);
+        CountingOutputStream counting = metrics.isEnabled() || event != null ? new CountingOutputStream(outputStream) : null;
+        OutputStream target = counting != null ? counting : outputStream;
+        String outcome = ActionEvent.FAILURE;
+        try {
+            if (options.isStreaming()) {
+                check(metrics, action, options, time);
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    ActionWriter.write(action, generator);
+                }
+            } else {
+                JsonNode asNode = toTree(metrics, action, options, time);
+                time = startTime(metrics);
+                actionWriter.writeValue(target, asNode);
+            }
+
+            if (counting != null) {
+                recordStage(metrics, Stage.WRITE, time);
+                recordEncoded(metrics, action, counting.count);
+            }
+            outcome = ActionEvent.SUCCESS;
+        } catch (ParsingException exception) {
+            outcome = ActionEvent.INVALID;
+            throw exception;
+        } catch (IOException exception) {
             throw new UncheckedIOException("Unable to encode action", exception);
+        } finally {
+            if (event != null && event.shouldCommit()) {
+                event.size = counting == null ? 0 : counting.count;
+                event.set(action, outcome);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Validates and encodes an Action as UTF-8 json to the buffer
+     * - Default values are set for supported values (see schema)
+     * - The json is written at the position of the buffer, which is then moved after it
+     * @param action Action to be encoded
+     * @param buffer buffer the json-serialized action is written to
+     * @return int number of bytes written
+     * @throws BufferOverflowException if the action does not fit in the remaining bytes of the buffer,
+     *                                 the position of the buffer is then left unchanged
+     */
+    public static int encodeTo(Action action, ByteBuffer buffer) {
+        return encodeTo(action, buffer, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and encodes an Action as UTF-8 json to the buffer
+     * - Default values are set for supported values (see schema)
+     * - The json is written at the position of the buffer, which is then moved after it
+     * @param action Action to be encoded
+     * @param buffer buffer the json-serialized action is written to
+     * @param options options to encode the Action
+     * @return int number of bytes written
+     * @throws BufferOverflowException if the action does not fit in the remaining bytes of the buffer,
+     *                                 the position of the buffer is then left unchanged
+     */
+    public static int encodeTo(Action action, ByteBuffer buffer, ParserOptions options) {
+        int position = buffer.position();
+        try {
+            encodeTo(action, new ByteBufferBackedOutputStream(buffer), options);
+        } catch (BufferOverflowException exception) {
+            buffer.position(position);
+            throw exception;
+        }
+
+        return buffer.position() - position;
+    }
+
+    /**
+     * Validates and encodes each Action as UTF-8 json
+     * - Default values are set for supported values (see schema)
+     * - An Action that cannot be encoded does not prevent the others from being encoded
+     * @param actions Actions to be encoded
+     * @return List results in the same order as the Actions
+     */
+    public static List<BatchResult<byte[]>> encodeBatch(List<Action> actions) {
+        return encodeBatch(actions, ParserOptions.DEFAULT);
+    }
+
+    /**
+     * Validates and encodes each Action as UTF-8 json
+     * - Default values are set for supported values (see schema)
+     * - An Action that cannot be encoded does not prevent the others from being encoded
+     * @param actions Actions to be encoded
+     * @param options options to encode the Actions
+     * @return List results in the same order as the Actions
+     */
+    public static List<BatchResult<byte[]>> encodeBatch(List<Action> actions, ParserOptions options) {
+        List<BatchResult<byte[]>> results = new ArrayList<>(actions.size());
+        // A single buffer is reused for the whole batch, each record only copies its own bytes out of it.
+        ByteArrayBuilder buffer = new ByteArrayBuilder();
+        try {
+            for (Action action : actions) {
+                results.add(encodeRecord(action, buffer, options));
+            }
+        } finally {
+            buffer.release();
+        }
+
+        return results;
+    }
+
+    static BatchResult<byte[]> encodeRecord(Action action, ByteArrayBuilder buffer, ParserOptions options) {
+        try {
+            encodeTo(action, buffer, options);
+            return BatchResult.success(buffer.toByteArray());
+        } catch (RuntimeException exception) {
+            // Any failure, including one of a metrics implementation, stays within its record.
+            return BatchResult.failure(exception);
+        } finally {
+            buffer.reset();
         }
     }
 
@@ -113,18 +780,94 @@ public class Parser {
      *                   errors.
      */
     public static void validate(JsonNode action, Schema jsonSchema) {
-        Result result = jsonSchema.walk(action, true, executionContext -> {
-            executionContext.walkConfig(walkConfig -> {
-                walkConfig.applyDefaultsStrategy(applyDefaults -> {
-                    applyDefaults.applyArrayDefaults(true)
-                        .applyPropertyDefaults(true)
-                        .applyPropertyDefaultsIfNull(true);
-                });
-            });
-        });
+        validate(action, jsonSchema, ParserOptions.DEFAULT);
+    }
 
-        if (!result.getErrors().isEmpty()) {
-            throw new ParsingException(result.getErrors());
+    /**
+     * Validates action and ensures all the values conform to the schema.
+     * @param action JsonNode to be validated
+     *                   Note that this validate does not perform the string-to-json of
+     *                   the context and events[*].payload fields and are reported as
+     *                   errors.
+     * @param jsonSchema schema to validate against
+     * @param options options controlling how the errors are reported and whether the defaults are applied
+     */
+    public static void validate(JsonNode action, Schema jsonSchema, ParserOptions options) {
+        validate(action, jsonSchema, options, options.isApplyDefaults());
+    }
+
+    private static void validate(JsonNode action, Schema jsonSchema, ParserOptions options, boolean applyDefaults) {
+        ValidateEvent event = ValidateEvent.start();
+        ParserMetrics metrics = Parser.metrics;
+        long time = startTime(metrics);
+        ParsingException rejection = null;
+
+        if (isCompiled(jsonSchema)) {
+            ErrorCollector collector = new ErrorCollector(options);
+            try {
+                if (jsonSchema == Parser.jsonSchema) {
+                    if (applyDefaults) {
+                        ActionValidator.applyDefaults(action);
+                    }
+                    ActionValidator.validate(action, collector);
+                } else {
+                    if (applyDefaults) {
+                        ActionOutValidator.applyDefaults(action);
+                    }
+                    ActionOutValidator.validate(action, collector);
+                }
+                collector.throwIfAny();
+            } catch (ParsingException exception) {
+                rejection = exception;
+            }
+        } else {
+            List<Error> errors;
+            if (options.isFailFast()) {
+                try {
+                    errors = jsonSchema.walk(action, true, applyDefaults ? applyDefaultsFailFast : failFast).getErrors();
+                } catch (FailFastAssertionException exception) {
+                    errors = exception.getErrors();
+                }
+            } else {
+                errors = jsonSchema.walk(action, true, applyDefaults ? Parser.applyDefaults : validateOnly).getErrors();
+            }
+            if (!errors.isEmpty()) {
+                rejection = new ParsingException(errors, !options.isStacklessRejections());
+            }
+        }
+        recordStage(metrics, Stage.VALIDATE, time);
+
+        if (event != null && event.shouldCommit()) {
+            event.schema = String.valueOf(jsonSchema.getSchemaLocation());
+            event.set(action, rejection == null ? ActionEvent.SUCCESS : ActionEvent.INVALID);
+            event.commit();
+        }
+
+        if (rejection != null) {
+            recordFailures(metrics, rejection);
+            throw rejection;
+        }
+    }
+
+    // The current bundled schemas are compiled into validators at build time, any other schema is walked.
+    private static boolean isCompiled(Schema jsonSchema) {
+        return jsonSchema == Parser.jsonSchema || jsonSchema == actionOutJsonSchema;
+    }
+
+    /**
+     * Validates the UTF-8 json bytes of an action the way it is validated when decoded, without binding it.
+     * The context and events[].payload sent as json strings are parsed, or only checked when they are lazy.
+     */
+    static void validate(byte[] actionJson, int offset, int length, Schema jsonSchema, ParserOptions options) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(actionJson, offset, length)) {
+            JsonNode action = objectMapper.readTree(parser);
+            if (action == null) {
+                action = MissingNode.getInstance();
+            }
+
+            updateContextAndPayload(action, objectMapper, options.isLazyEmbeddedJson());
+            // The tree is dropped afterwards, the defaults are only needed for a walk to validate the same way.
+            validate(action, jsonSchema, options, !isCompiled(jsonSchema));
         }
     }
 
@@ -133,71 +876,162 @@ public class Parser {
      * @param actionOut ActionOut to be validated.
      */
     public static void validate(final ActionOut actionOut) {
-        final Schema actionOutJsonSchema = getJsonSchema(ACTION_OUT_SCHEMA_PATH);
-
         validate(objectMapper.valueToTree(actionOut), actionOutJsonSchema);
     }
 
-    // context and events[].payload could be strings, change these values to jsons objects.
-    private static void updateContextAndPayload(JsonNode action, ObjectMapper objectMapper) throws JsonProcessingException {
-        parseFieldIfNeeded(action, CONTEXT_FIELD, objectMapper);
+    /**
+     * Sets the metrics the Parser reports to, replacing the one found by {@link java.util.ServiceLoader}.
+     * @param metrics metrics to report to, {@link ParserMetrics#NOOP} to stop reporting
+     */
+    public static void setMetrics(ParserMetrics metrics) {
+        Parser.metrics = Objects.requireNonNull(metrics);
+    }
+
+    public static ParserMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static ParserMetrics loadMetrics() {
+        return ServiceLoader.load(ParserMetrics.class).findFirst().orElse(ParserMetrics.NOOP);
+    }
+
+    // The clock is only read when the metrics are enabled.
+    private static long startTime(ParserMetrics metrics) {
+        return metrics.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    private static long recordStage(ParserMetrics metrics, Stage stage, long startTime) {
+        if (!metrics.isEnabled()) {
+            return 0L;
+        }
+
+        long now = System.nanoTime();
+        metrics.recordStage(stage, now - startTime);
+        return now;
+    }
+
+    private static void recordFailures(ParserMetrics metrics, ParsingException exception) {
+        if (metrics.isEnabled()) {
+            for (ParsingException.ErrorCode code : exception.getErrorCodes()) {
+                metrics.recordValidationFailure(code.getKeyword(), String.valueOf(code.getInstanceLocation()));
+            }
+        }
+    }
+
+    private static void recordDecoded(ParserMetrics metrics, JsonParser parser, long start, Action action) {
+        if (metrics.isEnabled()) {
+            metrics.recordBytesIn(offset(parser.currentLocation()) - start);
+            metrics.recordEvents(action.getEvents() == null ? 0 : action.getEvents().size());
+        }
+    }
+
+    // Offset in bytes, or in characters when the parser reads from a String.
+    static long offset(JsonLocation location) {
+        return location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+    }
+
+    private static void recordEncoded(ParserMetrics metrics, Action action, long bytes) {
+        if (metrics.isEnabled()) {
+            metrics.recordBytesOut(bytes);
+            metrics.recordEvents(action == null || action.getEvents() == null ? 0 : action.getEvents().size());
+        }
+    }
+
+    // Checks the action before it is streamed, the failed checks are reported as the stage it is part of.
+    private static void check(ParserMetrics metrics, Action action, ParserOptions options, long startTime) {
+        try {
+            ActionWriter.check(action, options);
+        } catch (ParsingException exception) {
+            recordStage(metrics, Stage.WRITE, startTime);
+            recordFailures(metrics, exception);
+            throw exception;
+        }
+    }
+
+    private static JsonNode toTree(ParserMetrics metrics, Action action, ParserOptions options, long startTime) {
+        JsonNode asNode = objectMapper.valueToTree(action);
+        recordStage(metrics, Stage.BIND, startTime);
+        validate(asNode, jsonSchema, options, true);
+        return asNode;
+    }
+
+    /*
+     * context and events[].payload could be strings, change these values to jsons objects.
+     * When lazy, the strings that look like objects are replaced by an empty object and returned instead,
+     * context at index 0 and the payload of events[i] at index i + 1.
+     */
+    private static String[] updateContextAndPayload(JsonNode action, ObjectMapper objectMapper, boolean lazy) throws JsonProcessingException {
+        String[] embeddedJson = null;
+        String context = parseFieldIfNeeded(action, CONTEXT_FIELD, objectMapper, lazy);
+        if (context != null) {
+            embeddedJson = new String[1 + action.path(EVENTS_FIELD).size()];
+            embeddedJson[0] = context;
+        }
 
         if (action.has(EVENTS_FIELD)) {
             JsonNode events = action.get(EVENTS_FIELD);
             if (events.getNodeType() == JsonNodeType.ARRAY) {
                 for (int i = 0; i < events.size(); i++) {
-                    parseFieldIfNeeded(events.get(i), PAYLOAD_FIELD, objectMapper);
+                    String payload = parseFieldIfNeeded(events.get(i), PAYLOAD_FIELD, objectMapper, lazy);
+                    if (payload != null) {
+                        if (embeddedJson == null) {
+                            embeddedJson = new String[1 + events.size()];
+                        }
+                        embeddedJson[i + 1] = payload;
+                    }
                 }
             }
         }
+
+        return embeddedJson;
     }
 
-    private static void parseFieldIfNeeded(JsonNode container, String field, ObjectMapper objectMapper) throws JsonProcessingException {
+    private static String parseFieldIfNeeded(JsonNode container, String field, ObjectMapper objectMapper, boolean lazy) throws JsonProcessingException {
         if (container.has(field)) {
             JsonNode target = container.get(field);
             if (target.getNodeType() == JsonNodeType.STRING) {
-                ((ObjectNode)container).replace(field, objectMapper.readTree(target.asText()));
+                String json = target.asText();
+                if (lazy && EmbeddedJson.isObject(json)) {
+                    ((ObjectNode)container).replace(field, objectMapper.createObjectNode());
+                    return json;
+                }
+                ((ObjectNode)container).replace(field, objectMapper.readTree(json));
             }
         }
-    }
 
-    private static Schema getJsonSchema(final String schemaPath) {
-        SchemaRegistryConfig schemaRegistryConfig = SchemaRegistryConfig.builder()
-            .pathType(PathType.LEGACY)
-            .errorMessageKeyword("message")
-            .build();
+        return null;
+    }
 
-        try (InputStream jsonSchemaStream = Parser.class.getResourceAsStream(schemaPath)) {
-            JsonNode schema = objectMapper.readTree(jsonSchemaStream);
+    private static void setLazyContextAndPayload(Action action, String[] embeddedJson) {
+        if (embeddedJson[0] != null) {
+            action.setContext(new LazyContext(embeddedJson[0]));
+        }
 
-            SchemaRegistry schemaRegistry = jsonSchemaFactory(schemaRegistryConfig);
-            return schemaRegistry.getSchema(com.networknt.schema.SchemaLocation.of(schemaPath), schema);
-        } catch (IOException ioe) {
-            throw new SchemaException(ioe);
+        for (int i = 1; i < embeddedJson.length; i++) {
+            if (embeddedJson[i] != null) {
+                action.getEvents().get(i - 1).setPayload(new LazyPayload(embeddedJson[i]));
+            }
         }
     }
 
-    private static SchemaRegistry jsonSchemaFactory(SchemaRegistryConfig schemaRegistryConfig) {
-        String ID = "$id";
+    private static final class CountingOutputStream extends FilterOutputStream {
 
-        Dialect overrideDateTimeValidator = Dialect.builder(Dialects.getDraft7())
-                .idKeyword(ID)
-                .keywords(keywords -> {
-                    keywords.put("title", new AnnotationKeyword("title"));
-                    keywords.put("$comment", new AnnotationKeyword("$comment"));
-                    keywords.put("description", new AnnotationKeyword("description"));
-                    keywords.put("default", new AnnotationKeyword("default"));
-                })
-                .format(new LocalDateTimeValidator())
-                .specificationVersion(SpecificationVersion.DRAFT_7)
-                .build();
+        private long count;
 
-        BasicDialectRegistry dialectRegistry = new BasicDialectRegistry(List.of(overrideDateTimeValidator));
+        private CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
 
-        return SchemaRegistry.builder()
-                .defaultDialectId(overrideDateTimeValidator.getId())
-                .dialectRegistry(dialectRegistry)
-                .schemaRegistryConfig(schemaRegistryConfig)
-                .build();
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
     }
 }
@@ -0,0 +1,156 @@
+package com.redhat.cloud.notifications.ingress;
+
+/**
+ * Bounds on the size and shape of the actions decoded by the {@link Parser}, checked as the json is read so that an
+ * oversized action is rejected before it is fully parsed. Exceeding a limit fails the decoding with an
+ * {@link java.io.UncheckedIOException} caused by a {@link com.fasterxml.jackson.core.exc.StreamConstraintsException}.
+ * Nothing is bounded by default, and instances are immutable.
+ */
+public final class ParserLimits {
+
+    /**
+     * No limits, the json is read without any additional check.
+     */
+    public static final ParserLimits NONE = builder().build();
+
+    private final long maxBytes;
+    private final int maxDepth;
+    private final int maxEvents;
+    private final long maxEmbeddedJsonBytes;
+    private final int maxRecipients;
+    private final int maxUsers;
+    private final int maxEmails;
+
+    private ParserLimits(Builder builder) {
+        this.maxBytes = builder.maxBytes;
+        this.maxDepth = builder.maxDepth;
+        this.maxEvents = builder.maxEvents;
+        this.maxEmbeddedJsonBytes = builder.maxEmbeddedJsonBytes;
+        this.maxRecipients = builder.maxRecipients;
+        this.maxUsers = builder.maxUsers;
+        this.maxEmails = builder.maxEmails;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Maximum size of an action, in bytes of UTF-8 json, or in characters when decoding a String. The size of a
+     * String, byte array or ByteBuffer is checked before parsing, a stream is checked as it is read.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Maximum nesting depth of the json objects and arrays, the action itself being at depth 1.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    /**
+     * Maximum size of the context and of each events[].payload, in the same unit as {@link #getMaxBytes()}. The size
+     * is the one of their json within the action: from brace to brace for an object, and from quote to quote for a
+     * string, escapes included. An object is rejected as soon as it exceeds the limit, a string once it has been read.
+     */
+    public long getMaxEmbeddedJsonBytes() {
+        return maxEmbeddedJsonBytes;
+    }
+
+    public int getMaxRecipients() {
+        return maxRecipients;
+    }
+
+    /**
+     * Maximum number of users of each recipient.
+     */
+    public int getMaxUsers() {
+        return maxUsers;
+    }
+
+    /**
+     * Maximum number of emails of each recipient.
+     */
+    public int getMaxEmails() {
+        return maxEmails;
+    }
+
+    boolean isUnlimited() {
+        return maxBytes == Long.MAX_VALUE && maxDepth == Integer.MAX_VALUE && maxEvents == Integer.MAX_VALUE
+            && maxEmbeddedJsonBytes == Long.MAX_VALUE && maxRecipients == Integer.MAX_VALUE
+            && maxUsers == Integer.MAX_VALUE && maxEmails == Integer.MAX_VALUE;
+    }
+
+    public static final class Builder {
+
+        private long maxBytes = Long.MAX_VALUE;
+        private int maxDepth = Integer.MAX_VALUE;
+        private int maxEvents = Integer.MAX_VALUE;
+        private long maxEmbeddedJsonBytes = Long.MAX_VALUE;
+        private int maxRecipients = Integer.MAX_VALUE;
+        private int maxUsers = Integer.MAX_VALUE;
+        private int maxEmails = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = requirePositive(maxBytes, "maxBytes");
+            return this;
+        }
+
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = (int) requirePositive(maxDepth, "maxDepth");
+            return this;
+        }
+
+        public Builder maxEvents(int maxEvents) {
+            this.maxEvents = (int) requireNonNegative(maxEvents, "maxEvents");
+            return this;
+        }
+
+        public Builder maxEmbeddedJsonBytes(long maxEmbeddedJsonBytes) {
+            this.maxEmbeddedJsonBytes = requirePositive(maxEmbeddedJsonBytes, "maxEmbeddedJsonBytes");
+            return this;
+        }
+
+        public Builder maxRecipients(int maxRecipients) {
+            this.maxRecipients = (int) requireNonNegative(maxRecipients, "maxRecipients");
+            return this;
+        }
+
+        public Builder maxUsers(int maxUsers) {
+            this.maxUsers = (int) requireNonNegative(maxUsers, "maxUsers");
+            return this;
+        }
+
+        public Builder maxEmails(int maxEmails) {
+            this.maxEmails = (int) requireNonNegative(maxEmails, "maxEmails");
+            return this;
+        }
+
+        public ParserLimits build() {
+            return new ParserLimits(this);
+        }
+
+        private static long requirePositive(long value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be at least 1");
+            }
+            return value;
+        }
+
+        private static long requireNonNegative(long value, String name) {
+            if (value < 0) {
+                throw new IllegalArgumentException(name + " must not be negative");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.redhat.cloud.notifications.ingress;
+
+/**
+ * Receives the measurements of the {@link Parser}, to be exported to the metrics system of the application.
+ * <p>
+ * The implementation is the first one found by {@link java.util.ServiceLoader}, or the one set with
+ * {@link Parser#setMetrics(ParserMetrics)}, and {@link #NOOP} otherwise. It is called concurrently by the threads
+ * decoding and encoding Actions, so it must be thread-safe and cheap, see {@link LongAdderParserMetrics}.
+ * Every method does nothing by default, implementations only override what they export.
+ */
+public interface ParserMetrics {
+
+    /**
+     * Measurements are skipped altogether, including reading the clock.
+     */
+    ParserMetrics NOOP = new ParserMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * Stages an Action goes through when it is decoded or encoded.
+     */
+    enum Stage {
+        /**
+         * Reading the json into a tree, or when streaming, reading, validating and binding it in a single pass.
+         */
+        READ,
+        /**
+         * Parsing the context and payloads sent as json strings.
+         */
+        EMBEDDED_JSON,
+        /**
+         * Validating a tree against the schema, including the schema defaults.
+         */
+        VALIDATE,
+        /**
+         * Binding a tree to the generated classes, or the generated classes to a tree.
+         */
+        BIND,
+        /**
+         * Writing the json, when streaming, including the validation.
+         */
+        WRITE
+    }
+
+    /**
+     * @return boolean false to skip the measurements, the other methods are then never called
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * @param stage stage that completed, successfully or not
+     * @param nanos time spent in the stage
+     */
+    default void recordStage(Stage stage, long nanos) {
+    }
+
+    /**
+     * @param bytes size of the json read, in characters when decoding a String
+     */
+    default void recordBytesIn(long bytes) {
+    }
+
+    /**
+     * @param bytes size of the json written, in characters when encoding to a String
+     */
+    default void recordBytesOut(long bytes) {
+    }
+
+    /**
+     * @param events number of events of an Action decoded or encoded
+     */
+    default void recordEvents(int events) {
+    }
+
+    /**
+     * Called once for each error of an Action that does not conform to the schema.
+     * @param keyword schema keyword that failed, e.g. required
+     * @param instanceLocation location of the value that failed, e.g. $.events[0].payload
+     */
+    default void recordValidationFailure(String keyword, String instanceLocation) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.redhat.cloud.notifications.ingress;
+
+import java.util.Objects;
+
+/**
+ * Options to tune how the {@link Parser} decodes and encodes actions.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class ParserOptions {
+
+    /**
+     * Options used by the methods of {@link Parser} that do not take any.
+     */
+    public static final ParserOptions DEFAULT = builder().build();
+
+    private final boolean streaming;
+    private final boolean lazyEmbeddedJson;
+    private final int maxInFlight;
+    private final boolean stacklessRejections;
+    private final boolean failFast;
+    private final ParserLimits limits;
+    private final StringTable stringTable;
+    private final ActionVersions versions;
+    private final boolean applyDefaults;
+    private final boolean compactRecipients;
+
+    private ParserOptions(Builder builder) {
+        this.streaming = builder.streaming;
+        this.lazyEmbeddedJson = builder.lazyEmbeddedJson;
+        this.maxInFlight = builder.maxInFlight;
+        this.stacklessRejections = builder.stacklessRejections;
+        this.failFast = builder.failFast;
+        this.limits = builder.limits;
+        this.stringTable = builder.stringTable;
+        this.versions = builder.versions;
+        this.applyDefaults = builder.applyDefaults;
+        this.compactRecipients = builder.compactRecipients;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Whether actions are decoded in a single pass from the json tokens, instead of building an
+     * intermediate JsonNode tree that is validated against the schema and then bound to the Action.
+     * Actions are also encoded straight from the Action to the json tokens, with the same output.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Whether the json objects sent as strings in context and events[].payload are kept as is and only parsed
+     * when their properties are first used. They are only checked to be wrapped in braces while decoding,
+     * a malformed json is reported when the properties are used.
+     */
+    public boolean isLazyEmbeddedJson() {
+        return lazyEmbeddedJson;
+    }
+
+    /**
+     * Maximum number of records decoded at the same time by
+     * {@link Parser#decodeBatch(java.util.List, ParserOptions, java.util.concurrent.Executor)}, which bounds the
+     * memory held by the records being decoded. Defaults to the number of available processors.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Whether the {@link ParsingException}s thrown for actions that do not conform to the schema skip filling in
+     * their stack trace, which is most of the cost of rejecting an action. Their errors are unchanged.
+     */
+    public boolean isStacklessRejections() {
+        return stacklessRejections;
+    }
+
+    /**
+     * Whether the validation stops at the first error, the {@link ParsingException} then only holds that error.
+     * Meant for the paths that only need to know an action is rejected, collecting all the errors is the default.
+     * The defaults of a schema other than the bundled ones may be partially applied to a JsonNode rejected this way.
+     */
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * Bounds on the size and shape of the decoded actions, enforced while the json is read. Unlimited by default.
+     */
+    public ParserLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Table the bundle, application, event_type, org_id, severity and version of the decoded actions are
+     * canonicalized with, so that the actions held at the same time share the instances of the repeated values.
+     * Null by default, every action then has its own Strings.
+     */
+    public StringTable getStringTable() {
+        return stringTable;
+    }
+
+    /**
+     * Older versions of the schema accepted when decoding, only the current one by default. An action of an older
+     * version is always decoded through a JsonNode tree. When streaming, the version is found within the single pass
+     * over the json: the top level fields that come before it are buffered as tokens and replayed to the decoding.
+     * Actions are best sent with their version first, as one without a version is buffered in full.
+     */
+    public ActionVersions getVersions() {
+        return versions;
+    }
+
+    /**
+     * Whether the default values of the schema are set on the decoded actions and on the JsonNode given to
+     * {@link Parser#validate(com.fasterxml.jackson.databind.JsonNode, com.networknt.schema.Schema, ParserOptions)},
+     * true by default. With the bundled schemas, the validation is the same either way: a property missing or null
+     * is valid when it has a default. When false, such properties are left null, or as initialized by the generated classes when missing.
+     * Encoded actions always have the defaults.
+     */
+    public boolean isApplyDefaults() {
+        return applyDefaults;
+    }
+
+    /**
+     * Whether the recipients of the decoded actions are compacted, for the actions with large recipient lists held
+     * in memory. The users, emails and groups are deduplicated, each identifier is shared across the action, or
+     * across actions through the string table when one is set, and the lists are unmodifiable. The recipients that
+     * only target users with the same only_admins and ignore_user_preferences are merged, so that the same users end
+     * up notified with fewer recipients. Disabled by default.
+     */
+    public boolean isCompactRecipients() {
+        return compactRecipients;
+    }
+
+    public static final class Builder {
+
+        private boolean streaming;
+        private boolean lazyEmbeddedJson;
+        private int maxInFlight = Runtime.getRuntime().availableProcessors();
+        private boolean stacklessRejections;
+        private boolean failFast;
+        private ParserLimits limits = ParserLimits.NONE;
+        private StringTable stringTable;
+        private ActionVersions versions = ActionVersions.CURRENT;
+        private boolean applyDefaults = true;
+        private boolean compactRecipients;
+
+        private Builder() {
+        }
+
+        public Builder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        public Builder lazyEmbeddedJson(boolean lazyEmbeddedJson) {
+            this.lazyEmbeddedJson = lazyEmbeddedJson;
+            return this;
+        }
+
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("maxInFlight must be at least 1");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder stacklessRejections(boolean stacklessRejections) {
+            this.stacklessRejections = stacklessRejections;
+            return this;
+        }
+
+        public Builder failFast(boolean failFast) {
+            this.failFast = failFast;
+            return this;
+        }
+
+        public Builder limits(ParserLimits limits) {
+            this.limits = Objects.requireNonNull(limits);
+            return this;
+        }
+
+        public Builder stringTable(StringTable stringTable) {
+            this.stringTable = stringTable;
+            return this;
+        }
+
+        public Builder versions(ActionVersions versions) {
+            this.versions = Objects.requireNonNull(versions);
+            return this;
+        }
+
+        public Builder applyDefaults(boolean applyDefaults) {
+            this.applyDefaults = applyDefaults;
+            return this;
+        }
+
+        public Builder compactRecipients(boolean compactRecipients) {
+            this.compactRecipients = compactRecipients;
+            return this;
+        }
+
+        public ParserOptions build() {
+            return new ParserOptions(this);
+        }
+    }
+}
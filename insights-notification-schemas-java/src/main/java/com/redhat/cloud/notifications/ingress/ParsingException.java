@@ -1,52 +1,149 @@
 package com.redhat.cloud.notifications.ingress;
 
 import com.networknt.schema.Error;
+import com.networknt.schema.path.NodePath;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.stream.Collectors;
 
+/**
+ * Thrown when an Action does not conform to the schema.
+ * The message, the {@link ErrorWrapper}s and the {@link ErrorCode}s are only built when first asked for, so that
+ * rejecting an Action mostly costs the errors themselves, and the stack trace too when it is not written.
+ */
 public class ParsingException extends RuntimeException {
 
-    private Set<ErrorWrapper> validationMessages;
+    private final List<Error> errors;
+    private volatile String message;
+    private volatile Set<ErrorWrapper> validationMessages;
+    private volatile List<ErrorCode> errorCodes;
 
     public ParsingException(List<Error> validationMessages) {
-        super("Validation failed: " + formatErrors(validationMessages));
-        this.validationMessages = validationMessages.stream()
-            .map(ErrorWrapper::new)
-            .collect(Collectors.toSet());
+        this(validationMessages, true);
+    }
+
+    /**
+     * @param validationMessages errors of the Action
+     * @param writableStackTrace false to skip filling in the stack trace, which is most of the cost of the exception
+     */
+    public ParsingException(List<Error> validationMessages, boolean writableStackTrace) {
+        super(null, null, true, writableStackTrace);
+        this.errors = List.copyOf(validationMessages);
+    }
+
+    @Override
+    public String getMessage() {
+        String message = this.message;
+        if (message == null) {
+            message = "Validation failed: " + formatErrors(errors);
+            this.message = message;
+        }
+
+        return message;
     }
 
     private static String formatErrors(List<Error> errors) {
         return errors.stream()
-            .map(error -> {
-                String location = error.getInstanceLocation().toString();
-                String message = error.getMessage();
-                if (location != null && !location.isEmpty() && !location.equals("$")) {
-                    return location + ": " + message;
-                }
-                return message;
-            })
+            .map(ErrorWrapper::format)
             .collect(Collectors.joining(", "));
     }
 
     public Set<ErrorWrapper> getValidationMessages() {
+        Set<ErrorWrapper> validationMessages = this.validationMessages;
+        if (validationMessages == null) {
+            validationMessages = errors.stream()
+                .map(ErrorWrapper::new)
+                .collect(Collectors.toCollection(HashSet::new));
+            this.validationMessages = validationMessages;
+        }
+
         return validationMessages;
     }
 
+    /**
+     * @return List the keyword and location of each error, in the order they were found
+     */
+    public List<ErrorCode> getErrorCodes() {
+        List<ErrorCode> errorCodes = this.errorCodes;
+        if (errorCodes == null) {
+            List<ErrorCode> codes = new ArrayList<>(errors.size());
+            for (Error error : errors) {
+                codes.add(new ErrorCode(error.getKeyword(), error.getInstanceLocation()));
+            }
+            errorCodes = Collections.unmodifiableList(codes);
+            this.errorCodes = errorCodes;
+        }
+
+        return errorCodes;
+    }
+
+    /**
+     * Structured form of an error, the schema keyword that failed and the location of the value that failed it.
+     * Codes are equal when both are, so they can be counted without formatting any message.
+     */
+    public static final class ErrorCode {
+
+        private final String keyword;
+        private final NodePath instanceLocation;
+
+        ErrorCode(String keyword, NodePath instanceLocation) {
+            this.keyword = keyword;
+            this.instanceLocation = instanceLocation;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public NodePath getInstanceLocation() {
+            return instanceLocation;
+        }
+
+        @Override
+        public String toString() {
+            return keyword + " " + instanceLocation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ErrorCode errorCode = (ErrorCode) o;
+            return Objects.equals(keyword, errorCode.keyword) && Objects.equals(instanceLocation, errorCode.instanceLocation);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(keyword) + Objects.hashCode(instanceLocation);
+        }
+    }
+
     /**
      * Wrapper class to maintain backward compatibility with the old ValidationMessage API
      * while using the new Error class from json-schema-validator 2.0.0
      */
     public static class ErrorWrapper {
         private final Error error;
+        private String message;
 
         public ErrorWrapper(Error error) {
             this.error = error;
         }
 
         public String getMessage() {
+            // Formatted once, the wrapped error is immutable.
+            if (message == null) {
+                message = format(error);
+            }
+            return message;
+        }
+
+        private static String format(Error error) {
             String location = error.getInstanceLocation().toString();
             String message = error.getMessage();
             if (location != null && !location.isEmpty() && !location.equals("$")) {
@@ -0,0 +1,110 @@
+package com.redhat.cloud.notifications.ingress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compacts the recipients of a decoded Action, see {@link ParserOptions#isCompactRecipients()}.
+ * <p>
+ * The users, emails and groups are deduplicated within each list and share a single instance of each identifier
+ * across the Action. The recipients that only target users, with the same only_admins and ignore_user_preferences,
+ * are merged into the first of them, their users and emails being the union of theirs. A recipient with groups, or
+ * without users, targets the users of its groups or of the whole organization and is never merged, it is only dropped
+ * when an identical one comes before it. The lists are unmodifiable and keep the order of their first occurrences.
+ */
+final class RecipientsCompactor {
+
+    private final Map<String, String> pool = new HashMap<>();
+    private final StringTable stringTable;
+
+    private RecipientsCompactor(StringTable stringTable) {
+        this.stringTable = stringTable;
+    }
+
+    static void compact(Action action, StringTable stringTable) {
+        List<Recipient> recipients = action.getRecipients();
+        if (recipients == null || recipients.isEmpty()) {
+            return;
+        }
+
+        RecipientsCompactor compactor = new RecipientsCompactor(stringTable);
+        List<Entry> entries = new ArrayList<>(recipients.size());
+        Map<List<Boolean>, Entry> usersOnly = new HashMap<>();
+        Set<List<Object>> others = new HashSet<>();
+        for (Recipient recipient : recipients) {
+            Entry entry = new Entry(recipient, compactor.share(recipient.getUsers()), compactor.share(recipient.getEmails()),
+                compactor.share(recipient.getGroups()));
+            List<Boolean> flags = Arrays.asList(recipient.getOnlyAdmins(), recipient.getIgnoreUserPreferences());
+
+            if (entry.users != null && !entry.users.isEmpty() && (entry.groups == null || entry.groups.isEmpty())) {
+                Entry merged = usersOnly.putIfAbsent(flags, entry);
+                if (merged != null) {
+                    merged.users.addAll(entry.users);
+                    if (entry.emails != null) {
+                        if (merged.emails == null) {
+                            merged.emails = entry.emails;
+                        } else {
+                            merged.emails.addAll(entry.emails);
+                        }
+                    }
+                    continue;
+                }
+            } else if (!others.add(Arrays.asList(flags, entry.users, entry.emails, entry.groups))) {
+                continue;
+            }
+            entries.add(entry);
+        }
+
+        List<Recipient> compacted = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            entry.recipient.setUsers(toList(entry.users));
+            entry.recipient.setEmails(toList(entry.emails));
+            entry.recipient.setGroups(toList(entry.groups));
+            compacted.add(entry.recipient);
+        }
+        action.setRecipients(compacted);
+    }
+
+    private Set<String> share(Collection<String> identifiers) {
+        if (identifiers == null) {
+            return null;
+        }
+
+        Set<String> shared = new LinkedHashSet<>();
+        for (String identifier : identifiers) {
+            if (stringTable != null) {
+                identifier = stringTable.canonicalize(identifier);
+            }
+            String previous = pool.putIfAbsent(identifier, identifier);
+            shared.add(previous == null ? identifier : previous);
+        }
+
+        return shared;
+    }
+
+    private static List<String> toList(Set<String> identifiers) {
+        return identifiers == null ? null : List.copyOf(identifiers);
+    }
+
+    private static final class Entry {
+
+        private final Recipient recipient;
+        private final Set<String> users;
+        private Set<String> emails;
+        private final Set<String> groups;
+
+        private Entry(Recipient recipient, Set<String> users, Set<String> emails, Set<String> groups) {
+            this.recipient = recipient;
+            this.users = users;
+            this.emails = emails;
+            this.groups = groups;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.redhat.cloud.notifications.ingress;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of the compilation of a bundled schema, which happens once per schema and version.
+ */
+@Name("com.redhat.cloud.notifications.SchemaCompile")
+@Label("Schema Compile")
+@Description("A bundled schema compiled the first time it is requested")
+@Category({ "Red Hat Insights", "Notifications" })
+@Enabled(false)
+@StackTrace(false)
+final class SchemaCompileEvent extends Event {
+
+    @Label("Schema")
+    String schema;
+
+    @Label("Version")
+    String version;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,53 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.networknt.schema.format.Format;
+import com.networknt.schema.format.Formats;
+import com.redhat.cloud.notifications.validator.EmailValidator;
+import com.redhat.cloud.notifications.validator.LocalDateTimeValidator;
+
+/**
+ * Formats of the bundled schemas, the same ones {@link Schemas} registers, for the validations that do not go through
+ * a {@link com.networknt.schema.Schema}.
+ */
+final class SchemaFormats {
+
+    private static final LocalDateTimeValidator DATE_TIME_FORMAT = new LocalDateTimeValidator();
+    // Shared with the schemas, so that all the validations fill the same cache of domains.
+    static final EmailValidator EMAIL_FORMAT = new EmailValidator();
+
+    private SchemaFormats() {
+    }
+
+    static Format get(String name) {
+        if (DATE_TIME_FORMAT.getName().equals(name)) {
+            return DATE_TIME_FORMAT;
+        }
+        if (EMAIL_FORMAT.getName().equals(name)) {
+            return EMAIL_FORMAT;
+        }
+
+        return Formats.DEFAULT.stream()
+            .filter(format -> format.getName().equals(name))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Format " + name + " is not available"));
+    }
+
+    /**
+     * Checks the text against the format, reporting the reason of a date-time mismatch as its message.
+     * @return boolean true if the text matches the format
+     */
+    static boolean check(Format format, String text, InstanceLocation location, ErrorCollector errors) {
+        if (format == DATE_TIME_FORMAT) {
+            String mismatch = DATE_TIME_FORMAT.mismatch(text);
+            if (mismatch != null) {
+                errors.format(location.toNodePath(), format, text, mismatch);
+                return false;
+            }
+        } else if (!format.matches(null, text)) {
+            errors.format(location.toNodePath(), format, text);
+            return false;
+        }
+
+        return true;
+    }
+}
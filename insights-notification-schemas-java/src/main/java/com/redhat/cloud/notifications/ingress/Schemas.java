@@ -0,0 +1,156 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaException;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.SchemaRegistryConfig;
+import com.networknt.schema.SpecificationVersion;
+import com.networknt.schema.dialect.BasicDialectRegistry;
+import com.networknt.schema.dialect.Dialect;
+import com.networknt.schema.dialect.Dialects;
+import com.networknt.schema.keyword.AnnotationKeyword;
+import com.networknt.schema.path.PathType;
+import com.redhat.cloud.notifications.validator.LocalDateTimeValidator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiled schemas bundled with this library.
+ * Each schema is compiled the first time it is requested and kept for the lifetime of the application,
+ * compiled schemas are immutable and can be shared between threads.
+ */
+public final class Schemas {
+
+    public static final String ACTION = "/schemas/Action.json";
+    public static final String ACTION_OUT = "/schemas/Action-out.json";
+
+    /**
+     * Version of the bundled schemas, found at the root of the schemas directory.
+     * Other versions are looked up at /schemas/{version}/.
+     */
+    public static final String CURRENT_VERSION = "2.0.0";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final SchemaRegistry schemaRegistry = jsonSchemaFactory();
+    private static final ConcurrentMap<Key, Schema> schemas = new ConcurrentHashMap<>();
+
+    private Schemas() {
+    }
+
+    /**
+     * Gets the current version of a bundled schema.
+     * @param schemaPath path of the schema, e.g. {@link #ACTION}
+     * @return Schema compiled schema
+     */
+    public static Schema get(String schemaPath) {
+        return get(schemaPath, CURRENT_VERSION);
+    }
+
+    /**
+     * Gets a given version of a bundled schema.
+     * @param schemaPath path of the schema, e.g. {@link #ACTION}
+     * @param version version of the schema
+     * @return Schema compiled schema
+     * @throws SchemaException if the schema is not bundled for that version
+     */
+    public static Schema get(String schemaPath, String version) {
+        return schemas.computeIfAbsent(new Key(schemaPath, version), Schemas::compile);
+    }
+
+    private static Schema compile(Key key) {
+        SchemaCompileEvent event = new SchemaCompileEvent();
+        event.begin();
+        String outcome = ActionEvent.FAILURE;
+        try {
+            Schema schema = load(key);
+            outcome = ActionEvent.SUCCESS;
+            return schema;
+        } finally {
+            if (event.shouldCommit()) {
+                event.schema = key.schemaPath;
+                event.version = key.version;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private static Schema load(Key key) {
+        String resourcePath = CURRENT_VERSION.equals(key.version)
+            ? key.schemaPath
+            : "/schemas/" + key.version + key.schemaPath.substring("/schemas".length());
+
+        try (InputStream jsonSchemaStream = Schemas.class.getResourceAsStream(resourcePath)) {
+            if (jsonSchemaStream == null) {
+                throw new SchemaException("Schema " + key.schemaPath + " is not available for version " + key.version);
+            }
+
+            JsonNode schema = objectMapper.readTree(jsonSchemaStream);
+            return schemaRegistry.getSchema(SchemaLocation.of(resourcePath), schema);
+        } catch (IOException ioe) {
+            throw new SchemaException(ioe);
+        }
+    }
+
+    private static SchemaRegistry jsonSchemaFactory() {
+        String ID = "$id";
+
+        SchemaRegistryConfig schemaRegistryConfig = SchemaRegistryConfig.builder()
+            .pathType(PathType.LEGACY)
+            .errorMessageKeyword("message")
+            .build();
+
+        Dialect overrideDateTimeValidator = Dialect.builder(Dialects.getDraft7())
+                .idKeyword(ID)
+                .keywords(keywords -> {
+                    keywords.put("title", new AnnotationKeyword("title"));
+                    keywords.put("$comment", new AnnotationKeyword("$comment"));
+                    keywords.put("description", new AnnotationKeyword("description"));
+                    keywords.put("default", new AnnotationKeyword("default"));
+                })
+                .format(new LocalDateTimeValidator())
+                .format(SchemaFormats.EMAIL_FORMAT)
+                .specificationVersion(SpecificationVersion.DRAFT_7)
+                .build();
+
+        BasicDialectRegistry dialectRegistry = new BasicDialectRegistry(List.of(overrideDateTimeValidator));
+
+        return SchemaRegistry.builder()
+                .defaultDialectId(overrideDateTimeValidator.getId())
+                .dialectRegistry(dialectRegistry)
+                .schemaRegistryConfig(schemaRegistryConfig)
+                .build();
+    }
+
+    private static final class Key {
+
+        private final String schemaPath;
+        private final String version;
+
+        private Key(String schemaPath, String version) {
+            this.schemaPath = Objects.requireNonNull(schemaPath);
+            this.version = Objects.requireNonNull(version);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return schemaPath.equals(key.schemaPath) && version.equals(key.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * schemaPath.hashCode() + version.hashCode();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.redhat.cloud.notifications.ingress;
+
+/**
+ * Bounded table of canonical Strings, shared by the actions decoded with the same {@link ParserOptions} so that
+ * their bundle, application, event_type, org_id, severity and version reference the same instances instead of a copy
+ * each. When streaming, a value found in the table is resolved from the characters of the parser, without creating a
+ * String at all.
+ * <p>
+ * The table is direct-mapped: each value has a single slot, picked from its hash, and a value taking the slot of
+ * another one evicts it. It is safe to use from several threads without locking, a race only causes a miss.
+ */
+public final class StringTable {
+
+    /**
+     * Values longer than this are returned as is by default, they are unlikely to repeat.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    private final String[] slots;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public StringTable(int capacity) {
+        this(capacity, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     * @param maxLength length of the longest value kept in the table
+     */
+    public StringTable(int capacity, int maxLength) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength must not be negative");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new String[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * @param value any String, possibly null
+     * @return String the instance of the table equal to the value, the value itself if there is none yet
+     */
+    public String canonicalize(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+
+        int slot = slot(value.hashCode());
+        String canonical = slots[slot];
+        if (value.equals(canonical)) {
+            return canonical;
+        }
+
+        slots[slot] = value;
+        return value;
+    }
+
+    /**
+     * @return String the instance of the table equal to the characters, a new one if there is none yet
+     */
+    public String canonicalize(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+
+        // Same hash as String.hashCode, so that both methods agree on the slot of a value.
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        int slot = slot(hash);
+        String canonical = slots[slot];
+        if (canonical != null && matches(canonical, chars, offset, length)) {
+            return canonical;
+        }
+
+        String value = new String(chars, offset, length);
+        slots[slot] = value;
+        return value;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean matches(String canonical, char[] chars, int offset, int length) {
+        if (canonical.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (canonical.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package com.redhat.cloud.notifications.ingress;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.redhat.cloud.notifications.Validate")
+@Label("Action Validate")
+@Description("A json tree validated against a schema, when decoding, encoding or through Parser.validate")
+final class ValidateEvent extends ActionEvent {
+
+    private static final EventType TYPE = EventType.getEventType(ValidateEvent.class);
+
+    @Label("Schema")
+    String schema;
+
+    /**
+     * @return the begun event, or null when no recording enables it
+     */
+    static ValidateEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        ValidateEvent event = new ValidateEvent();
+        event.begin();
+        return event;
+    }
+}
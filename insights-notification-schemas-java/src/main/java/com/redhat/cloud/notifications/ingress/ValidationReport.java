@@ -0,0 +1,143 @@
+package com.redhat.cloud.notifications.ingress;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregated outcome of a {@link BulkValidator} run: how many records were valid, invalid or malformed, and how many
+ * times each schema keyword failed at each location, with the offset of the first record it failed for.
+ */
+public final class ValidationReport {
+
+    private final long valid;
+    private final long invalid;
+    private final long malformed;
+    private final long firstMalformedOffset;
+    private final Map<String, Map<String, Long>> errors;
+    private final Map<String, Map<String, Long>> firstOffsets;
+
+    private ValidationReport(Accumulator accumulator) {
+        this.valid = accumulator.valid;
+        this.invalid = accumulator.invalid;
+        this.malformed = accumulator.malformed;
+        this.firstMalformedOffset = accumulator.firstMalformedOffset;
+        Map<String, Map<String, Long>> errors = new TreeMap<>();
+        Map<String, Map<String, Long>> firstOffsets = new TreeMap<>();
+        accumulator.errors.forEach((code, stats) -> {
+            String location = code.getInstanceLocation().toString();
+            errors.computeIfAbsent(code.getKeyword(), keyword -> new TreeMap<>()).put(location, stats[0]);
+            firstOffsets.computeIfAbsent(code.getKeyword(), keyword -> new TreeMap<>()).put(location, stats[1]);
+        });
+        errors.replaceAll((keyword, locations) -> Collections.unmodifiableMap(locations));
+        this.errors = Collections.unmodifiableMap(errors);
+        this.firstOffsets = firstOffsets;
+    }
+
+    public long getRecords() {
+        return valid + invalid + malformed;
+    }
+
+    public long getValid() {
+        return valid;
+    }
+
+    /**
+     * Records that are json but do not conform to the schema.
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * Records that are not json, or whose context or payload sent as a json string is not.
+     */
+    public long getMalformed() {
+        return malformed;
+    }
+
+    /**
+     * @return long byte offset in the file of the first malformed record, -1 if there is none
+     */
+    public long getFirstMalformedOffset() {
+        return firstMalformedOffset;
+    }
+
+    /**
+     * @return Map number of times each keyword failed, by keyword then by instance location, e.g. $.events[0].payload
+     */
+    public Map<String, Map<String, Long>> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return long byte offset in the file of the first record the keyword failed for at the location, -1 if none did
+     */
+    public long getFirstOffset(String keyword, String instanceLocation) {
+        Long offset = firstOffsets.getOrDefault(keyword, Collections.emptyMap()).get(instanceLocation);
+        return offset == null ? -1L : offset;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder()
+            .append("records: ").append(getRecords())
+            .append(", valid: ").append(valid)
+            .append(", invalid: ").append(invalid)
+            .append(", malformed: ").append(malformed);
+        if (malformed > 0) {
+            report.append(" (first at byte ").append(firstMalformedOffset).append(')');
+        }
+        errors.forEach((keyword, locations) -> locations.forEach((location, count) ->
+            report.append(System.lineSeparator()).append(keyword).append(' ').append(location).append(": ").append(count)
+                .append(" (first at byte ").append(getFirstOffset(keyword, location)).append(')')));
+        return report.toString();
+    }
+
+    /**
+     * Counts of a part of the records, merged into the report once all the parts are validated. Not thread-safe.
+     */
+    static final class Accumulator {
+
+        private long valid;
+        private long invalid;
+        private long malformed;
+        private long firstMalformedOffset = -1L;
+        // Count and first offset of each error.
+        private final Map<ParsingException.ErrorCode, long[]> errors = new HashMap<>();
+
+        void valid() {
+            valid++;
+        }
+
+        void invalid(ParsingException exception, long offset) {
+            invalid++;
+            for (ParsingException.ErrorCode code : exception.getErrorCodes()) {
+                long[] stats = errors.computeIfAbsent(code, key -> new long[] { 0L, offset });
+                stats[0]++;
+            }
+        }
+
+        void malformed(long offset) {
+            if (malformed++ == 0) {
+                firstMalformedOffset = offset;
+            }
+        }
+
+        // The other part must come after this one in the file, for the first offsets to stay the first.
+        void merge(Accumulator other) {
+            valid += other.valid;
+            invalid += other.invalid;
+            if (malformed == 0) {
+                firstMalformedOffset = other.firstMalformedOffset;
+            }
+            malformed += other.malformed;
+            other.errors.forEach((code, stats) -> errors.merge(code, stats, (mine, theirs) -> new long[] { mine[0] + theirs[0], mine[1] }));
+        }
+
+        ValidationReport build() {
+            return new ValidationReport(this);
+        }
+    }
+}
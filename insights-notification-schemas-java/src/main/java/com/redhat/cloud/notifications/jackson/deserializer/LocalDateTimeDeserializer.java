@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonTokenId;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.redhat.cloud.notifications.time.IsoDateTime;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -19,6 +20,14 @@ public class LocalDateTimeDeserializer extends JsonDeserializer<LocalDateTime> {
     @Override
     public LocalDateTime deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
         if (jsonParser.hasTokenId(JsonTokenId.ID_STRING)) {
+            // The common shapes are read straight from the parser buffer, anything else goes through java.time.
+            LocalDateTime dateTime = jsonParser.hasTextCharacters()
+                ? IsoDateTime.parseUtc(jsonParser.getTextCharacters(), jsonParser.getTextOffset(), jsonParser.getTextLength())
+                : IsoDateTime.parseUtc(jsonParser.getText());
+            if (dateTime != null) {
+                return dateTime;
+            }
+
             TemporalAccessor temporalAccessor = dateTimeFormatter.parse(jsonParser.getText());
             return OffsetDateTime.from(temporalAccessor).atZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
         }
@@ -3,6 +3,7 @@ package com.redhat.cloud.notifications.jackson.serializer;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.redhat.cloud.notifications.time.IsoDateTime;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -10,9 +11,18 @@ import java.time.format.DateTimeFormatter;
 
 public class LocalDateTimeSerializer extends JsonSerializer<LocalDateTime> {
 
+    // The generator copies the characters before writeString returns, so each thread can keep reusing its buffer.
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[IsoDateTime.MAX_FORMATTED_LENGTH]);
+
     @Override
     public void serialize(LocalDateTime dateTime, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
-        jsonGenerator.writeString(dateTime.format(DateTimeFormatter.ISO_DATE_TIME));
+        char[] buffer = BUFFER.get();
+        int length = IsoDateTime.format(dateTime, buffer, 0);
+        if (length == IsoDateTime.UNSUPPORTED) {
+            jsonGenerator.writeString(dateTime.format(DateTimeFormatter.ISO_DATE_TIME));
+        } else {
+            jsonGenerator.writeString(buffer, 0, length);
+        }
     }
 
 }
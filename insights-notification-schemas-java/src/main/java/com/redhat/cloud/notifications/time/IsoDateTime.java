@@ -0,0 +1,366 @@
+package com.redhat.cloud.notifications.time;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hand-written scanner for the date-times accepted by {@link java.time.format.DateTimeFormatter#ISO_DATE_TIME}.
+ * <p>
+ * The common shapes ({@code yyyy-MM-ddTHH:mm[:ss[.fffffffff]][Z|+HH:MM[:SS]]}) are checked without allocating
+ * nor throwing. Rare shapes, such as expanded years or zone region ids ({@code [Europe/Paris]}), are reported as
+ * {@link #UNSUPPORTED} so callers can defer to {@code java.time}.
+ */
+public final class IsoDateTime {
+
+    /**
+     * The text is a valid date-time.
+     */
+    public static final int VALID = -1;
+
+    /**
+     * The text may be valid but is not handled by this scanner, {@code java.time} needs to be used instead.
+     */
+    public static final int UNSUPPORTED = -2;
+
+    /**
+     * Number of characters needed by {@link #format(LocalDateTime, char[], int)}.
+     */
+    public static final int MAX_FORMATTED_LENGTH = 29;
+
+    private static final int MAX_FRACTION_DIGITS = 9;
+    private static final int[] FRACTION_SCALES = { 1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1 };
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+
+    private IsoDateTime() {
+    }
+
+    /**
+     * Checks if the text is a valid ISO-8601 date-time.
+     * @param text text to check
+     * @return int {@link #VALID}, {@link #UNSUPPORTED} or the index at which the text stops being a date-time
+     */
+    public static int check(CharSequence text) {
+        return scan(text, null, 0, text.length(), true);
+    }
+
+    /**
+     * Checks if the text has the shape of an ISO-8601 date-time, without checking the range of its fields. A text
+     * {@link #VALID} here but not for {@link #check(CharSequence)} has a field out of range or a day that does not
+     * exist in its month.
+     * @param text text to check
+     * @return int {@link #VALID}, {@link #UNSUPPORTED} or the index at which {@code java.time} stops parsing the text
+     */
+    public static int checkSyntax(CharSequence text) {
+        return scan(text, null, 0, text.length(), false);
+    }
+
+    /**
+     * Checks if the characters are a valid ISO-8601 date-time.
+     * @param chars buffer holding the text
+     * @param offset index of the first character of the text
+     * @param length number of characters of the text
+     * @return int {@link #VALID}, {@link #UNSUPPORTED} or the index (relative to offset) at which the text stops
+     * being a date-time
+     */
+    public static int check(char[] chars, int offset, int length) {
+        int result = scan(null, chars, offset, length, true);
+        return result >= 0 ? result - offset : result;
+    }
+
+    /**
+     * Parses an ISO-8601 date-time and converts it to UTC.
+     * Date-times without offset are considered to be in UTC already.
+     * @param text text to parse
+     * @return LocalDateTime date-time in UTC, or null if the text is not {@link #VALID}
+     */
+    public static LocalDateTime parseUtc(CharSequence text) {
+        int length = text.length();
+        return scan(text, null, 0, length, true) == VALID ? toUtc(text, null, 0, length) : null;
+    }
+
+    /**
+     * Parses an ISO-8601 date-time and converts it to UTC.
+     * Date-times without offset are considered to be in UTC already.
+     * @param chars buffer holding the text
+     * @param offset index of the first character of the text
+     * @param length number of characters of the text
+     * @return LocalDateTime date-time in UTC, or null if the text is not {@link #VALID}
+     */
+    public static LocalDateTime parseUtc(char[] chars, int offset, int length) {
+        return scan(null, chars, offset, length, true) == VALID ? toUtc(null, chars, offset, length) : null;
+    }
+
+    /**
+     * Writes the date-time as {@link java.time.format.DateTimeFormatter#ISO_DATE_TIME} would.
+     * @param dateTime date-time to write
+     * @param buffer buffer with at least {@link #MAX_FORMATTED_LENGTH} characters available after offset
+     * @param offset index at which the first character is written
+     * @return int number of characters written, or {@link #UNSUPPORTED} if the year needs more than four digits or a
+     * sign
+     */
+    public static int format(LocalDateTime dateTime, char[] buffer, int offset) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            return UNSUPPORTED;
+        }
+
+        int i = offset;
+        i = writeDigits(buffer, i, year, 4);
+        buffer[i++] = '-';
+        i = writeDigits(buffer, i, dateTime.getMonthValue(), 2);
+        buffer[i++] = '-';
+        i = writeDigits(buffer, i, dateTime.getDayOfMonth(), 2);
+        buffer[i++] = 'T';
+        i = writeDigits(buffer, i, dateTime.getHour(), 2);
+        buffer[i++] = ':';
+        i = writeDigits(buffer, i, dateTime.getMinute(), 2);
+        buffer[i++] = ':';
+        i = writeDigits(buffer, i, dateTime.getSecond(), 2);
+
+        // The fraction is left out when zero and written without its trailing zeros otherwise.
+        int nano = dateTime.getNano();
+        if (nano != 0) {
+            int digits = MAX_FRACTION_DIGITS;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[i++] = '.';
+            i = writeDigits(buffer, i, nano, digits);
+        }
+
+        return i - offset;
+    }
+
+    private static int writeDigits(char[] buffer, int i, int value, int count) {
+        for (int j = i + count - 1; j >= i; j--) {
+            buffer[j] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+
+        return i + count;
+    }
+
+    // Reads the fields of a date-time already checked by scan, which fixes the position of each of them.
+    private static LocalDateTime toUtc(CharSequence text, char[] chars, int offset, int length) {
+        int end = offset + length;
+        int year = digits(text, chars, offset, 4, end);
+        int month = digits(text, chars, offset + 5, 2, end);
+        int day = digits(text, chars, offset + 8, 2, end);
+        int hour = digits(text, chars, offset + 11, 2, end);
+        int minute = digits(text, chars, offset + 14, 2, end);
+        int second = 0;
+        int nano = 0;
+
+        int i = offset + 16;
+        if (i < end && charAt(text, chars, i) == ':') {
+            second = digits(text, chars, i + 1, 2, end);
+            i += 3;
+            if (i < end && charAt(text, chars, i) == '.') {
+                int fractionStart = ++i;
+                while (i < end && i - fractionStart < MAX_FRACTION_DIGITS && isDigit(charAt(text, chars, i))) {
+                    nano = nano * 10 + (charAt(text, chars, i++) - '0');
+                }
+                nano *= FRACTION_SCALES[i - fractionStart];
+            }
+        }
+
+        LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        if (i == end) {
+            return dateTime;
+        }
+
+        char sign = charAt(text, chars, i);
+        if (sign == 'Z' || sign == 'z') {
+            return dateTime;
+        }
+
+        int offsetSeconds = offsetSeconds(text, chars, i + 1, end) & 0xFFFFF;
+        if (offsetSeconds == 0) {
+            return dateTime;
+        }
+
+        return sign == '+' ? dateTime.minusSeconds(offsetSeconds) : dateTime.plusSeconds(offsetSeconds);
+    }
+
+    /*
+     * Exactly one of text or chars is set, so the same scanner reads from both without copying. A field that is not
+     * made of digits fails at its first character, as in java.time, and one out of range at its first digit.
+     */
+    private static int scan(CharSequence text, char[] chars, int offset, int length, boolean checkRanges) {
+        int end = offset + length;
+        int i = offset;
+
+        // Date: yyyy-MM-dd
+        if (i < end && (charAt(text, chars, i) == '+' || charAt(text, chars, i) == '-')) {
+            return UNSUPPORTED;
+        }
+        int year = digits(text, chars, i, 4, end);
+        if (year < 0) {
+            return i;
+        }
+        i += 4;
+        if (i < end && isDigit(charAt(text, chars, i))) {
+            return UNSUPPORTED;
+        }
+        if (!expect(text, chars, i, end, '-')) {
+            return i;
+        }
+        i++;
+        int month = digits(text, chars, i, 2, end);
+        if (month < 0 || checkRanges && (month < 1 || month > 12)) {
+            return i;
+        }
+        i += 2;
+        if (!expect(text, chars, i, end, '-')) {
+            return i;
+        }
+        i++;
+        int day = digits(text, chars, i, 2, end);
+        if (day < 0 || checkRanges && (day < 1 || day > lengthOfMonth(year, month))) {
+            return i;
+        }
+        i += 2;
+
+        if (i >= end || (charAt(text, chars, i) != 'T' && charAt(text, chars, i) != 't')) {
+            return i;
+        }
+        i++;
+
+        // Time: HH:mm[:ss[.fffffffff]]
+        int hour = digits(text, chars, i, 2, end);
+        if (hour < 0 || checkRanges && hour > 23) {
+            return i;
+        }
+        i += 2;
+        if (!expect(text, chars, i, end, ':')) {
+            return i;
+        }
+        i++;
+        int minute = digits(text, chars, i, 2, end);
+        if (minute < 0 || checkRanges && minute > 59) {
+            return i;
+        }
+        i += 2;
+
+        if (i < end && charAt(text, chars, i) == ':') {
+            int second = digits(text, chars, i + 1, 2, end);
+            if (second >= 0 && (!checkRanges || second <= 59)) {
+                i += 3;
+                if (i < end && charAt(text, chars, i) == '.') {
+                    int fractionStart = i + 1;
+                    int j = fractionStart;
+                    while (j < end && j - fractionStart < MAX_FRACTION_DIGITS && isDigit(charAt(text, chars, j))) {
+                        j++;
+                    }
+                    if (j == fractionStart) {
+                        return UNSUPPORTED;
+                    }
+                    i = j;
+                }
+            }
+        }
+
+        if (i == end) {
+            return VALID;
+        }
+
+        // Offset: Z or +HH:MM[:SS], optionally followed by a zone region id.
+        char c = charAt(text, chars, i);
+        if (c == 'Z' || c == 'z') {
+            i++;
+        } else if (c == '+' || c == '-') {
+            int offsetSeconds = offsetSeconds(text, chars, i + 1, end);
+            if (offsetSeconds < 0) {
+                return UNSUPPORTED;
+            }
+            i += offsetSeconds > 0xFFFFF ? 9 : 6;
+        } else {
+            return i;
+        }
+
+        if (i == end) {
+            return VALID;
+        }
+
+        return charAt(text, chars, i) == '[' ? UNSUPPORTED : i;
+    }
+
+    /*
+     * Reads HH:MM[:SS] and returns the offset in seconds, with bit 20 set if the seconds were present.
+     * Returns -1 if the text does not have that shape or is out of range.
+     */
+    private static int offsetSeconds(CharSequence text, char[] chars, int i, int end) {
+        int hours = digits(text, chars, i, 2, end);
+        if (hours < 0 || !expect(text, chars, i + 2, end, ':')) {
+            return -1;
+        }
+        int minutes = digits(text, chars, i + 3, 2, end);
+        if (minutes < 0 || minutes > 59) {
+            return -1;
+        }
+
+        int seconds = 0;
+        boolean hasSeconds = false;
+        if (i + 5 < end && charAt(text, chars, i + 5) == ':') {
+            seconds = digits(text, chars, i + 6, 2, end);
+            if (seconds < 0 || seconds > 59) {
+                return -1;
+            }
+            hasSeconds = true;
+        }
+
+        int total = hours * 3600 + minutes * 60 + seconds;
+        if (total > MAX_OFFSET_SECONDS) {
+            return -1;
+        }
+
+        return hasSeconds ? total | 0x100000 : total;
+    }
+
+    private static int digits(CharSequence text, char[] chars, int i, int count, int end) {
+        if (i + count > end) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int j = i; j < i + count; j++) {
+            char c = charAt(text, chars, j);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+
+    private static boolean expect(CharSequence text, char[] chars, int i, int end, char expected) {
+        return i < end && charAt(text, chars, i) == expected;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static char charAt(CharSequence text, char[] chars, int i) {
+        return chars != null ? chars[i] : text.charAt(i);
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+}
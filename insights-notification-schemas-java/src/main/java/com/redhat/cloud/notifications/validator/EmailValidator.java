@@ -0,0 +1,207 @@
+package com.redhat.cloud.notifications.validator;
+
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.format.EmailFormat;
+import com.networknt.schema.format.Format;
+import com.networknt.org.apache.commons.validator.routines.DomainValidator;
+
+/**
+ * Validates the "email" format with the same outcome as the networknt {@link EmailFormat}, which matches the whole
+ * address against regular expressions.
+ * <p>
+ * The common addresses are checked by a single scan: ASCII words separated by dots before the last @, then a domain
+ * of ASCII labels separated by dots. The top-level domain of a domain with several labels has to be a known one, it
+ * is looked up in the lists of networknt and the outcome is cached, as a recipient list usually shares a few of them.
+ * A cached top-level domain is looked up without allocating. The other addresses, such as quoted or non-ASCII local
+ * parts, internationalized domains or IP address literals, are left to the networknt format.
+ * <p>
+ * Instances can be shared between threads.
+ */
+public class EmailValidator implements Format {
+
+    /**
+     * Number of top-level domains cached by default.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_DOMAIN_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+    // Not allowed in a word of the local part, besides the whitespaces and the control characters.
+    private static final String SPECIAL_CHARS = "()<>@,;:\".[]\\";
+
+    private final EmailFormat emailFormat = new EmailFormat();
+    // The one networknt uses, which accepts the local top-level domains such as localhost.
+    private final DomainValidator domainValidator = DomainValidator.getInstance(true);
+    // Direct-mapped, a top-level domain replaces the one in its slot. Null when the cache is disabled.
+    private final TopLevelDomain[] topLevelDomains;
+    private final int mask;
+
+    public EmailValidator() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize number of top-level domains cached, rounded up to a power of two, 0 to disable the cache
+     */
+    public EmailValidator(int cacheSize) {
+        if (cacheSize < 0 || cacheSize > 1 << 30) {
+            throw new IllegalArgumentException("cacheSize must be between 0 and 2^30");
+        }
+
+        int capacity = cacheSize <= 1 ? cacheSize : Integer.highestOneBit(cacheSize - 1) << 1;
+        this.topLevelDomains = cacheSize == 0 ? null : new TopLevelDomain[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public String getName() {
+        return "email";
+    }
+
+    @Override
+    public String getMessageKey() {
+        return emailFormat.getMessageKey();
+    }
+
+    @Override
+    public boolean matches(ExecutionContext executionContext, String text) {
+        return matches(text);
+    }
+
+    public boolean matches(String text) {
+        if (text == null) {
+            return false;
+        }
+
+        // The address is split on the last @ only when the domain is not empty and has no whitespace.
+        int at = text.lastIndexOf('@');
+        if (at <= 0 || at == text.length() - 1 || hasWhitespace(text, at + 1)) {
+            return emailFormat.matches(null, text);
+        }
+        if (at > MAX_LOCAL_PART_LENGTH) {
+            return false;
+        }
+
+        boolean wordStart = true;
+        for (int i = 0; i < at; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80 || c == '"' || c == '\\') {
+                // Quoted strings, escapes and the non-ASCII characters.
+                return emailFormat.matches(null, text);
+            } else if (c == '.') {
+                if (wordStart) {
+                    return false;
+                }
+                wordStart = true;
+            } else if (c <= ' ' || c == 0x7f || SPECIAL_CHARS.indexOf(c) >= 0) {
+                return false;
+            } else {
+                wordStart = false;
+            }
+        }
+
+        return !wordStart && isValidDomain(text, at + 1);
+    }
+
+    /*
+     * Labels of letters, digits and hyphens, neither starting nor ending with a hyphen, separated by dots. A single
+     * label is a local host name, otherwise the last label starts with a letter and is a known top-level domain.
+     */
+    private boolean isValidDomain(String text, int start) {
+        int length = text.length();
+        if (text.charAt(start) == '[' || !isAscii(text, start)) {
+            return emailFormat.matches(null, text);
+        }
+
+        int labelStart = start;
+        for (int i = start; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : '.';
+            if (c == '.') {
+                int labelLength = i - labelStart;
+                if (labelLength == 0 || labelLength > MAX_LABEL_LENGTH || text.charAt(labelStart) == '-' || text.charAt(i - 1) == '-') {
+                    return false;
+                }
+                if (i < length) {
+                    labelStart = i + 1;
+                }
+            } else if (!isLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+
+        if (labelStart == start) {
+            return true;
+        }
+
+        return length - start <= MAX_DOMAIN_LENGTH && isLetter(text.charAt(labelStart)) && isTopLevelDomain(text, labelStart);
+    }
+
+    private boolean isTopLevelDomain(String text, int start) {
+        if (topLevelDomains == null) {
+            return domainValidator.isValidTld(text.substring(start));
+        }
+
+        int hash = 0;
+        for (int i = start; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        int slot = (hash ^ hash >>> 16) & mask;
+        int length = text.length() - start;
+
+        TopLevelDomain topLevelDomain = topLevelDomains[slot];
+        if (topLevelDomain != null && topLevelDomain.hash == hash && topLevelDomain.name.length() == length
+            && text.regionMatches(start, topLevelDomain.name, 0, length)) {
+            return topLevelDomain.valid;
+        }
+
+        String name = text.substring(start);
+        boolean valid = domainValidator.isValidTld(name);
+        topLevelDomains[slot] = new TopLevelDomain(name, hash, valid);
+        return valid;
+    }
+
+    private static boolean isAscii(String text, int start) {
+        for (int i = start; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || c >= '0' && c <= '9';
+    }
+
+    // The whitespaces of the regular expressions, which do not include the non-ASCII ones.
+    private static boolean hasWhitespace(String text, int start) {
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == 0x0b || c == '\f' || c == '\r') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Immutable, so that a TopLevelDomain read by another thread is always complete.
+    private static final class TopLevelDomain {
+
+        private final String name;
+        private final int hash;
+        private final boolean valid;
+
+        private TopLevelDomain(String name, int hash, boolean valid) {
+            this.name = name;
+            this.hash = hash;
+            this.valid = valid;
+        }
+    }
+}
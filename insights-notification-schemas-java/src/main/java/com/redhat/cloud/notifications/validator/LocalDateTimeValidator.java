@@ -1,14 +1,28 @@
 package com.redhat.cloud.notifications.validator;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.MessageSourceError;
+import com.networknt.schema.SchemaContext;
 import com.networknt.schema.format.Format;
+import com.networknt.schema.keyword.FormatValidator;
+import com.networknt.schema.path.NodePath;
+import com.redhat.cloud.notifications.time.IsoDateTime;
 
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.function.Supplier;
 
+/**
+ * Validates the "date-time" format as any date-time accepted by {@link DateTimeFormatter#ISO_DATE_TIME}.
+ * Instances hold no state and can be shared between threads.
+ */
 public class LocalDateTimeValidator implements Format {
 
-    private String message;
+    // The date, the hours and the minutes, java.time reports the text it cannot parse after them as unparsed.
+    private static final int MANDATORY_LENGTH = 16;
 
     @Override
     public String getName() {
@@ -21,17 +35,102 @@ public class LocalDateTimeValidator implements Format {
     }
 
     public boolean matches(String text) {
-        try {
-            DateTimeFormatter.ISO_DATE_TIME.parse(text);
-            return true;
-        } catch (DateTimeParseException exception) {
-            message = exception.getMessage();
-            return false;
+        return mismatch(text) == null;
+    }
+
+    /**
+     * Checks the text and describes why it is not a valid date-time, with the message of the
+     * {@link DateTimeParseException} {@link DateTimeFormatter#ISO_DATE_TIME} would throw.
+     * @param text text to check
+     * @return String null if the text is a valid date-time, the reason why it is not otherwise
+     */
+    public String mismatch(String text) {
+        int result = IsoDateTime.check(text);
+        if (result == IsoDateTime.VALID) {
+            return null;
+        }
+
+        // java.time parses the whole text before checking the fields, a syntax error comes first wherever it is.
+        int syntax = result == IsoDateTime.UNSUPPORTED ? result : IsoDateTime.checkSyntax(text);
+        if (syntax == IsoDateTime.UNSUPPORTED) {
+            try {
+                DateTimeFormatter.ISO_DATE_TIME.parse(text);
+                return null;
+            } catch (DateTimeParseException exception) {
+                return exception.getMessage();
+            }
         }
+
+        if (syntax >= 0) {
+            return syntax < MANDATORY_LENGTH
+                ? "Text '" + text + "' could not be parsed at index " + syntax
+                : "Text '" + text + "' could not be parsed, unparsed text found at index " + syntax;
+        }
+
+        return "Text '" + text + "' could not be parsed: " + invalidField(text);
     }
 
+    // The fields are at fixed positions once the syntax is checked, they are reported in the order of java.time.
+    private static String invalidField(String text) {
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (month < 1 || month > 12) {
+            return invalidValue("MonthOfYear", "1 - 12", month);
+        }
+        if (day < 1 || day > 31) {
+            return invalidValue("DayOfMonth", "1 - 28/31", day);
+        }
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return month == 2 && day == 29
+                ? "Invalid date 'February 29' as '" + year + "' is not a leap year"
+                : "Invalid date '" + Month.of(month).name() + " " + day + "'";
+        }
+
+        int minute = digits(text, 14, 2);
+        if (minute > 59) {
+            return invalidValue("MinuteOfHour", "0 - 59", minute);
+        }
+        int hour = digits(text, 11, 2);
+        if (hour > 23) {
+            return invalidValue("HourOfDay", "0 - 23", hour);
+        }
+
+        return invalidValue("SecondOfMinute", "0 - 59", digits(text, 17, 2));
+    }
+
+    private static String invalidValue(String field, String range, int value) {
+        return "Invalid value for " + field + " (valid values " + range + "): " + value;
+    }
+
+    private static int digits(String text, int index, int count) {
+        int value = 0;
+        for (int i = index; i < index + count; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+
+        return value;
+    }
+
+    /*
+     * Reports the reason of each mismatch with its own error, instead of sharing it through getMessageKey. The reason
+     * is still the message key, so networknt formats it as before, which drops the single quotes of java.time.
+     */
     @Override
-    public String getMessageKey() {
-        return message;
+    public void validate(ExecutionContext executionContext, SchemaContext schemaContext, JsonNode node, JsonNode rootNode,
+                         NodePath instanceLocation, boolean assertionsEnabled, Supplier<MessageSourceError.Builder> message,
+                         FormatValidator formatValidator) {
+        if (!assertionsEnabled || !node.isTextual()) {
+            return;
+        }
+
+        String text = node.textValue();
+        String mismatch = mismatch(text);
+        if (mismatch != null) {
+            executionContext.addError(message.get()
+                .messageKey(mismatch)
+                .arguments(getName(), text)
+                .build());
+        }
     }
 }
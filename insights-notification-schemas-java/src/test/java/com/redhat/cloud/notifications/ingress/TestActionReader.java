@@ -0,0 +1,60 @@
+package com.redhat.cloud.notifications.ingress;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestActionReader {
+
+    private static final ParserOptions STREAMING = ParserOptions.builder().streaming(true).build();
+
+    @Test
+    void shouldDecodeLikeTheTreeParser() {
+        assertSameAction("{\"version\":\"v1.1.0\",\"id\":\"f81d4fae-7dec-11d0-a765-00a0c91e6bf6\",\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\",\"timestamp\":\"2022-07-05T08:47:39Z\",\"account_id\":null,\"org_id\":\"6089719\",\"severity\":\"Important\",\"context\":{\"inventory_id\":\"e1e39f6d\",\"nested\":{\"list\":[1,2.5,true,null]}},\"events\":[{\"payload\":{\"advisory_id\":160818,\"advisory_name\":\"RHBA-2020:3897\"}},{\"metadata\":{\"a\":\"b\"},\"payload\":{}}],\"recipients\":[{\"only_admins\":true,\"users\":[\"u1\",\"u2\"],\"emails\":[\"user@redhat.com\"]},{\"ignore_user_preferences\":null,\"groups\":null}],\"recipients_authorization_criterion\":{\"id\":\"abc1\",\"relation\":\"rel1\",\"type\":{\"name\":\"type_name\",\"namespace\":\"type_namespace\"}}}");
+        assertSameAction("{\"bundle\":\"my-bundle\",\"application\":\"Policies\",\"event_type\":\"Any\",\"timestamp\":\"2021-08-24T16:36:31.806149\",\"org_id\":\"testTenant\",\"context\":\"{\\\"user_id\\\":\\\"123456-7890\\\",\\\"user_name\\\":\\\"foobar\\\"}\",\"events\":[{\"metadata\":{},\"payload\":\"{\\\"k2\\\":\\\"v2\\\",\\\"k3\\\":\\\"v\\\",\\\"k\\\":\\\"v\\\"}\"}]}\n");
+        assertSameAction("{\"version\":null,\"bundle\":\"rhel\",\"application\":\"compliance\",\"event_type\":\"below-threshold\",\"timestamp\":\"2022-05-02T17:30:54+03:00\",\"org_id\":\"6089719\",\"context\":null,\"recipients\":null,\"events\":[{\"metadata\":null,\"payload\":{}}]}");
+        assertSameAction("{\"bundle\":\"rhel\",\"application\":\"compliance\",\"event_type\":\"below-threshold\",\"timestamp\":\"2022-05-02T17:30:54Z\",\"org_id\":\"6089719\",\"context\":\"null\",\"events\":[{\"payload\":\" {} \"}]}");
+    }
+
+    @Test
+    void shouldReportTheSameErrorsAsTheSchema() {
+        assertSameErrors("{\"bundle\":null,\"application\":1,\"event_type\":\"x\",\"timestamp\":\"bad\",\"org_id\":\"o\",\"account_id\":1.5,\"extra\":{\"a\":[1]},\"id\":\"nope\",\"events\":[{\"payload\":{},\"x\":1},{\"metadata\":\"m\"},3,{\"payload\":null}],\"recipients\":[{\"emails\":[\"bad\",\"a@b.com\",3],\"users\":{},\"only_admins\":\"yes\",\"other\":true}],\"recipients_authorization_criterion\":{\"type\":{\"name\":null},\"x\":1}}");
+        assertSameErrors("{\"events\":\"x\",\"context\":\"[1, 2]\",\"recipients\":[null]}");
+        assertSameErrors("{\"bundle\":\"rhel\",\"application\":\"compliance\",\"event_type\":\"x\",\"timestamp\":\"2022-05-02T17:30:54Z\",\"org_id\":\"1\",\"context\":\"null\",\"events\":[{\"payload\":\"null\"}]}");
+        assertSameErrors("{\"bundle\":\"rhel\",\"application\":\"compliance\",\"event_type\":\"x\",\"timestamp\":\"2022-05-02T17:30:54Z\",\"org_id\":\"1\",\"context\":\"\",\"events\":[{\"payload\":\"  \"}]}");
+        assertSameErrors("{\"bundle\":\"rhel\",\"application\":\"compliance\",\"event_type\":\"x\",\"timestamp\":\"2022-05-02T17:30:54Z\",\"org_id\":\"1\",\"context\":\"  \",\"events\":[{\"payload\":\"\"}]}");
+        assertSameErrors("[{\"bundle\":\"rhel\"}]");
+        assertSameErrors("\"action\"");
+    }
+
+    @Test
+    void shouldFailOnMalformedJson() {
+        assertThrows(UncheckedIOException.class, () -> Parser.decode("{\"bundle\":", STREAMING));
+        assertThrows(UncheckedIOException.class, () -> Parser.decode("", STREAMING));
+        assertThrows(UncheckedIOException.class, () -> Parser.decode("{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"x\",\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"1\",\"events\":[{\"payload\":\"{not json\"}]}", STREAMING));
+    }
+
+    private void assertSameAction(String actionJson) {
+        assertEquals(
+            Parser.objectMapper.valueToTree(Parser.decode(actionJson)),
+            Parser.objectMapper.valueToTree(Parser.decode(actionJson, STREAMING))
+        );
+    }
+
+    private void assertSameErrors(String actionJson) {
+        ParsingException expected = assertThrows(ParsingException.class, () -> Parser.decode(actionJson));
+        ParsingException actual = assertThrows(ParsingException.class, () -> Parser.decode(actionJson, STREAMING));
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    private Set<String> describe(ParsingException exception) {
+        return exception.getValidationMessages().stream()
+            .map(wrapper -> wrapper.getError().getKeyword() + " " + wrapper.getMessage())
+            .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,237 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestActionStream {
+
+    private static final String ACTION = "{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\"," +
+        "\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"%s\",\"events\":[{\"payload\":{\"advisory_id\":160818}}]}";
+    private static final String INVALID = "{\"bundle\":1,\"application\":2,\"event_type\":\"x\",\"timestamp\":\"bad\",\"org_id\":\"o\",\"events\":[{}]}";
+    private static final String TWO_EVENTS = "{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"x\"," +
+        "\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"o\",\"events\":[{\"payload\":{}},{\"payload\":{\"a\":[1,{\"b\":2}]}}]}";
+    private static final String BAD_PAYLOAD = "{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"x\"," +
+        "\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"o\",\"events\":[{\"payload\":\"{not json\"}]}";
+
+    @Test
+    void shouldDecodeNdjsonAndArrays() {
+        String ndjson = String.format(ACTION, "1") + "\n" + INVALID + "\n" + String.format(ACTION, "2") + "\n";
+        String array = "[" + String.format(ACTION, "1") + ", " + INVALID + ",\n" + String.format(ACTION, "2") + "]";
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).build();
+            for (String json : List.of(ndjson, array)) {
+                List<BatchResult<Action>> results = readAll(Parser.stream(input(json), options));
+                assertEquals(3, results.size());
+                assertEquals("1", results.get(0).get().getOrgId());
+                assertInstanceOf(ParsingException.class, results.get(1).getError());
+                assertEquals("2", results.get(2).get().getOrgId());
+            }
+
+            assertTrue(readAll(Parser.stream(input("[]"), options)).isEmpty());
+            assertTrue(readAll(Parser.stream(input(" \n"), options)).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldSkipTheRestOfARejectedAction() {
+        String ndjson = TWO_EVENTS + BAD_PAYLOAD + INVALID + String.format(ACTION, "1");
+        String array = "[" + TWO_EVENTS + "," + BAD_PAYLOAD + "," + INVALID + "," + String.format(ACTION, "1") + "]";
+        ParserLimits limits = ParserLimits.builder().maxEvents(1).build();
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).failFast(true).limits(limits).build();
+            for (String json : List.of(ndjson, array)) {
+                List<BatchResult<Action>> results = readAll(Parser.stream(input(json), options));
+                assertEquals(4, results.size());
+                assertInstanceOf(StreamConstraintsException.class, results.get(0).getError().getCause());
+                assertInstanceOf(UncheckedIOException.class, results.get(1).getError());
+                assertEquals(1, ((ParsingException) results.get(2).getError()).getErrorCodes().size());
+                assertEquals("1", results.get(3).get().getOrgId());
+            }
+        }
+    }
+
+    @Test
+    void shouldEndOnMalformedJson() {
+        ActionStream stream = Parser.stream(input(String.format(ACTION, "1") + "\n{\"bundle\":"));
+        assertTrue(stream.next().isSuccess());
+        assertThrows(UncheckedIOException.class, stream::hasNext);
+        assertFalse(stream.hasNext());
+
+        stream = Parser.stream(input("[" + String.format(ACTION, "1") + " " + String.format(ACTION, "2") + "]"));
+        assertTrue(stream.next().isSuccess());
+        assertThrows(UncheckedIOException.class, stream::next);
+    }
+
+    @Test
+    void shouldReadLargeStreamsOneActionAtATime() {
+        int count = 10_000;
+        byte[] action = (String.format(ACTION, "1") + "\n").getBytes(StandardCharsets.UTF_8);
+        List<InputStream> inputs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inputs.add(new ByteArrayInputStream(action));
+        }
+
+        ActionStream stream = Parser.stream(Channels.newChannel(new SequenceInputStream(Collections.enumeration(inputs))),
+            ParserOptions.builder().streaming(true).build());
+        int decoded = 0;
+        while (stream.hasNext()) {
+            assertTrue(stream.next().isSuccess());
+            decoded++;
+        }
+        assertEquals(count, decoded);
+    }
+
+    @Test
+    void shouldOnlyDecodeTheRequestedActions() throws Exception {
+        String ndjson = String.format(ACTION, "1") + INVALID + String.format(ACTION, "2");
+        AtomicInteger reads = new AtomicInteger();
+        InputStream input = new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                reads.incrementAndGet();
+                return super.read(b, off, 1);
+            }
+        };
+
+        // The subscriber requests one action at a time, with the executor running the tasks inline.
+        List<BatchResult<Action>> received = new ArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        Flow.Publisher<BatchResult<Action>> publisher = Parser.publish(input, ParserOptions.DEFAULT, Runnable::run);
+        // Only the few bytes needed to detect the encoding are read before the first request.
+        int readsBeforeRequest = reads.get();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(BatchResult<Action> item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+
+        assertEquals(readsBeforeRequest, reads.get());
+        assertTrue(received.isEmpty());
+        subscription[0].request(1);
+        assertEquals(1, received.size());
+        int readsForTheFirst = reads.get();
+        assertTrue(readsForTheFirst < ndjson.length());
+
+        subscription[0].request(5);
+        completed.get(10, TimeUnit.SECONDS);
+        assertEquals(3, received.size());
+        assertFalse(received.get(1).isSuccess());
+        assertEquals("2", received.get(2).get().getOrgId());
+
+        // The stream can only be read once.
+        CompletableFuture<Throwable> error = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+            }
+
+            @Override
+            public void onNext(BatchResult<Action> item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error.complete(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertInstanceOf(IllegalStateException.class, error.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldPublishOnTheExecutor() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            ndjson.append(String.format(ACTION, i)).append('\n');
+        }
+
+        CompletableFuture<List<String>> orgIds = new CompletableFuture<>();
+        Parser.publish(input(ndjson.toString()), ParserOptions.DEFAULT, ForkJoinPool.commonPool()).subscribe(new Flow.Subscriber<>() {
+            private final List<String> received = new ArrayList<>();
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(7);
+            }
+
+            @Override
+            public void onNext(BatchResult<Action> item) {
+                received.add(item.get().getOrgId());
+                if (received.size() % 7 == 0) {
+                    subscription.request(7);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                orgIds.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                orgIds.complete(received);
+            }
+        });
+
+        List<String> received = orgIds.get(10, TimeUnit.SECONDS);
+        assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), received.get(i));
+        }
+    }
+
+    private InputStream input(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<BatchResult<Action>> readAll(ActionStream stream) {
+        List<BatchResult<Action>> results = new ArrayList<>();
+        stream.forEachRemaining(results::add);
+        return results;
+    }
+}
@@ -0,0 +1,148 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.networknt.schema.Error;
+import com.networknt.schema.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the validators generated from the schemas against a walk of the same schemas.
+ */
+public class TestActionValidator {
+
+    private static final String ACTION = "{\"version\":\"2.0.0\",\"id\":\"f81d4fae-7dec-11d0-a765-00a0c91e6bf6\",\"bundle\":\"rhel\"," +
+        "\"application\":\"patch\",\"event_type\":\"new-advisory\",\"timestamp\":\"2022-07-05T08:47:39.806149\"," +
+        "\"account_id\":\"account-id\",\"org_id\":\"6089719\",\"severity\":\"Important\",\"context\":{\"inventory_id\":\"e1e39f6d\"}," +
+        "\"events\":[{\"metadata\":{\"a\":\"b\"},\"payload\":{\"advisory_id\":160818}},{\"payload\":{}}]," +
+        "\"recipients\":[{\"only_admins\":true,\"users\":[\"u1\",\"u2\"],\"emails\":[\"user@redhat.com\"]}]," +
+        "\"recipients_authorization_criterion\":{\"id\":\"abc1\",\"relation\":\"rel1\",\"type\":{\"name\":\"type_name\",\"namespace\":\"type_namespace\"}}}";
+
+    private static final String SOURCE = "{\"application\":{\"display_name\":\"Patch\"},\"bundle\":{\"display_name\":\"Red Hat Enterprise Linux\"}," +
+        "\"event_type\":{\"display_name\":\"New advisory\"}}";
+
+    private static final String[] VALUES = {
+        "null", "0", "1.5", "1.0", "true", "\"\"", "\"x\"", "\"\\ud83d\\ude00\"", "\"not-an-email\"", "\"user@redhat.com\"",
+        "\"f81d4fae-7dec-11d0-a765-00a0c91e6bf6\"", "\"2022-07-05T08:47:39Z\"", "\"2022-07-05T08:47:39+01:00\"", "\"2022-13-01T00:00:00\"",
+        "{}", "[]", "[null, \"a\", 1]", "{\"payload\":{}}", "{\"display_name\":\"\"}", "{\"name\":\"n\",\"extra\":1}"
+    };
+
+    @Test
+    void shouldValidateActionsLikeTheSchema() throws Exception {
+        JsonNode action = Parser.objectMapper.readTree(ACTION);
+        assertSame(action, Schemas.get(Schemas.ACTION), ActionValidator::validate, ActionValidator::applyDefaults);
+        assertSame(Parser.objectMapper.readTree("{}"), Schemas.get(Schemas.ACTION), ActionValidator::validate, ActionValidator::applyDefaults);
+        assertSame(Parser.objectMapper.readTree("[]"), Schemas.get(Schemas.ACTION), ActionValidator::validate, ActionValidator::applyDefaults);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            assertSame(mutate(action, random), Schemas.get(Schemas.ACTION), ActionValidator::validate, ActionValidator::applyDefaults);
+        }
+    }
+
+    @Test
+    void shouldValidateActionOutsLikeTheSchema() throws Exception {
+        ObjectNode actionOut = (ObjectNode) Parser.objectMapper.readTree(ACTION);
+        actionOut.set("source", Parser.objectMapper.readTree(SOURCE));
+        assertSame(actionOut, Schemas.get(Schemas.ACTION_OUT), ActionOutValidator::validate, ActionOutValidator::applyDefaults);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            assertSame(mutate(actionOut, random), Schemas.get(Schemas.ACTION_OUT), ActionOutValidator::validate, ActionOutValidator::applyDefaults);
+        }
+    }
+
+    @Test
+    void shouldApplyTheDefaults() throws Exception {
+        String json = "{\"version\":null,\"events\":[{\"payload\":{},\"metadata\":null}],\"recipients\":[{}]}";
+        JsonNode action = Parser.objectMapper.readTree(json);
+        ErrorCollector errors = new ErrorCollector();
+        ActionValidator.validate(action, errors);
+
+        assertFalse(errors.isEmpty());
+        assertEquals(json, action.toString());
+
+        ActionValidator.applyDefaults(action);
+        assertEquals("{\"version\":\"2.0.0\",\"events\":[{\"payload\":{},\"metadata\":{}}],\"recipients\":[{\"only_admins\":false," +
+            "\"ignore_user_preferences\":false,\"users\":[],\"emails\":[],\"groups\":[]}],\"context\":{}}", action.toString());
+    }
+
+    private void assertSame(JsonNode node, Schema schema, BiConsumer<JsonNode, ErrorCollector> validator, Consumer<JsonNode> defaults) {
+        JsonNode walked = node.deepCopy();
+        Set<String> expected = describe(schema.walk(walked, true, Parser.applyDefaults).getErrors());
+
+        // The validation does not depend on the defaults being applied, nor applies them.
+        JsonNode compiled = node.deepCopy();
+        ErrorCollector errors = new ErrorCollector();
+        validator.accept(compiled, errors);
+        assertEquals(expected, describe(errors.getErrors()), node::toString);
+        assertEquals(node.toString(), compiled.toString(), node::toString);
+
+        defaults.accept(compiled);
+        errors = new ErrorCollector();
+        validator.accept(compiled, errors);
+        assertEquals(expected, describe(errors.getErrors()), node::toString);
+        assertEquals(walked.toString(), compiled.toString(), node::toString);
+    }
+
+    private Set<String> describe(List<Error> errors) {
+        return errors.stream()
+            .map(error -> error.getKeyword() + " " + error.getInstanceLocation() + " " + error.getMessage())
+            .collect(Collectors.toSet());
+    }
+
+    // Replaces, removes or adds one to three values anywhere in the tree.
+    private JsonNode mutate(JsonNode node, Random random) throws Exception {
+        JsonNode mutated = node.deepCopy();
+        int mutations = 1 + random.nextInt(3);
+        for (int i = 0; i < mutations; i++) {
+            List<ContainerNode<?>> containers = new ArrayList<>();
+            collect(mutated, containers);
+            ContainerNode<?> container = containers.get(random.nextInt(containers.size()));
+            JsonNode value = Parser.objectMapper.readTree(VALUES[random.nextInt(VALUES.length)]);
+
+            if (container instanceof ObjectNode) {
+                ObjectNode object = (ObjectNode) container;
+                List<String> names = new ArrayList<>();
+                object.fieldNames().forEachRemaining(names::add);
+                if (names.isEmpty() || random.nextInt(5) == 0) {
+                    object.set(random.nextBoolean() ? "unknown" : "display_name", value);
+                } else if (random.nextInt(4) == 0) {
+                    object.remove(names.get(random.nextInt(names.size())));
+                } else {
+                    object.set(names.get(random.nextInt(names.size())), value);
+                }
+            } else {
+                ArrayNode array = (ArrayNode) container;
+                if (array.isEmpty() || random.nextInt(3) == 0) {
+                    array.add(value);
+                } else {
+                    array.set(random.nextInt(array.size()), value);
+                }
+            }
+        }
+
+        return mutated;
+    }
+
+    private void collect(JsonNode node, List<ContainerNode<?>> containers) {
+        if (node.isContainerNode()) {
+            containers.add((ContainerNode<?>) node);
+            node.forEach(child -> collect(child, containers));
+        }
+    }
+}
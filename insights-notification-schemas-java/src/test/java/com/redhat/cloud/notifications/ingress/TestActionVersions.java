@@ -0,0 +1,121 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.networknt.schema.SchemaException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestActionVersions {
+
+    // The test resources bundle a 1.0.0 schema, where actions had an account_id instead of an org_id.
+    private static final ActionVersions VERSIONS = ActionVersions.builder()
+        .upgrade("1.0.0", action -> action.put("org_id", "org-" + action.remove("account_id").asText()))
+        .build();
+
+    private static final String V1 = "{\"version\":\"1.0.0\",\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\"," +
+        "\"timestamp\":\"2022-07-05T08:47:39Z\",\"account_id\":\"123\",\"events\":[{\"payload\":{}}]}";
+    private static final String V1_VERSION_LAST = "{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\"," +
+        "\"timestamp\":\"2022-07-05T08:47:39Z\",\"account_id\":\"123\",\"events\":[{\"payload\":\"{\\\"a\\\":1}\"}],\"version\":\"1.0.0\"}";
+    private static final String V2 = "{\"version\":\"2.0.0\",\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\"," +
+        "\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"456\",\"events\":[{\"payload\":{}}]}";
+
+    @Test
+    void shouldUpgradeOlderVersions() {
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).versions(VERSIONS).build();
+            for (String json : List.of(V1, V1_VERSION_LAST)) {
+                byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+                List<Action> actions = List.of(
+                    Parser.decode(json, options),
+                    Parser.decode(bytes, options),
+                    Parser.decode(ByteBuffer.wrap(bytes), options),
+                    Parser.decode(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip(), options),
+                    Parser.decode(new ByteArrayInputStream(bytes), options)
+                );
+                for (Action action : actions) {
+                    assertEquals(Schemas.CURRENT_VERSION, action.getVersion());
+                    assertEquals("org-123", action.getOrgId());
+                    assertNull(action.getAccountId());
+                    assertEquals(List.of(), action.getRecipients());
+                }
+            }
+
+            assertEquals("456", Parser.decode(V2, options).getOrgId());
+        }
+    }
+
+    @Test
+    void shouldValidateOlderVersionsAgainstTheirSchema() {
+        String withoutAccountId = V1.replace("\"account_id\":\"123\",", "");
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).versions(VERSIONS).build();
+            ParsingException exception = assertThrows(ParsingException.class, () -> Parser.decode(withoutAccountId, options));
+            assertEquals(List.of("required $"), describe(exception));
+
+            // Without the older version, the action is checked against the current schema.
+            ParserOptions current = ParserOptions.builder().streaming(streaming).build();
+            exception = assertThrows(ParsingException.class, () -> Parser.decode(V1, current));
+            assertEquals(List.of("required $"), describe(exception));
+        }
+    }
+
+    @Test
+    void shouldStreamMixedVersions() {
+        String ndjson = V2 + "\n" + V1 + "\n" + V1_VERSION_LAST + "\n";
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).versions(VERSIONS).build();
+            List<String> orgIds = new ArrayList<>();
+            Parser.stream(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), options)
+                .forEachRemaining(result -> orgIds.add(result.get().getOrgId()));
+            assertEquals(List.of("456", "org-123", "org-123"), orgIds);
+        }
+    }
+
+    @Test
+    void shouldReadTheVersionWithinTheSamePass() throws IOException {
+        String v2VersionLast = V2.replace("\"version\":\"2.0.0\",", "").replace("}]}", "}],\"version\":\"2.0.0\"}");
+        String v2WithoutVersion = V2.replace("\"version\":\"2.0.0\",", "");
+        for (String json : List.of(V1, V1_VERSION_LAST, V2, v2VersionLast, v2WithoutVersion, "{\"context\":{},\"version\":{\"a\":[1]},\"bundle\":\"rhel\"}", "[1]")) {
+            try (JsonParser parser = Parser.objectMapper.createParser(json)) {
+                parser.nextToken();
+                ActionVersions.Versioned versioned = ActionVersions.readVersion(parser);
+                assertEquals(Parser.objectMapper.readTree(json).path("version").textValue(), versioned.getVersion(), json);
+                // The buffered tokens followed by the remaining ones make up the whole action.
+                assertEquals(Parser.objectMapper.readTree(json), Parser.objectMapper.readTree(versioned.getParser()), json);
+                assertNull(parser.nextToken(), json);
+            }
+        }
+
+        // Current actions are streamed whatever the position of their version.
+        ParserOptions options = ParserOptions.builder().streaming(true).versions(VERSIONS).build();
+        for (String json : List.of(V2, v2VersionLast, v2WithoutVersion)) {
+            assertEquals(Parser.decode(json), Parser.decode(json, options));
+            assertEquals(Parser.decode(json), Parser.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), options));
+        }
+    }
+
+    @Test
+    void shouldOnlyAcceptBundledOlderVersions() {
+        assertThrows(IllegalArgumentException.class, () -> ActionVersions.builder().upgrade(Schemas.CURRENT_VERSION, action -> { }));
+        assertThrows(SchemaException.class, () -> ActionVersions.builder().upgrade("0.0.1", action -> { }));
+        assertEquals(Set.of("1.0.0"), VERSIONS.getVersions());
+        assertEquals(Set.of(), ActionVersions.CURRENT.getVersions());
+    }
+
+    private List<String> describe(ParsingException exception) {
+        List<String> codes = new ArrayList<>();
+        exception.getErrorCodes().forEach(code -> codes.add(code.toString()));
+        return codes;
+    }
+}
@@ -0,0 +1,152 @@
+package com.redhat.cloud.notifications.ingress;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestActionWriter {
+
+    private static final ParserOptions STREAMING = ParserOptions.builder().streaming(true).build();
+
+    @Test
+    void shouldEncodeLikeTheTreeParser() {
+        assertSameJson(action());
+
+        Action defaults = action();
+        defaults.setVersion(null);
+        defaults.setContext(null);
+        defaults.setRecipients(null);
+        defaults.getEvents().get(0).setMetadata(null);
+        assertSameJson(defaults);
+
+        Action recipientDefaults = action();
+        Recipient recipient = new Recipient();
+        recipient.setOnlyAdmins(null);
+        recipient.setIgnoreUserPreferences(null);
+        recipient.setUsers(null);
+        recipient.setEmails(null);
+        recipient.setGroups(null);
+        recipientDefaults.setRecipients(List.of(recipient, new Recipient()));
+        assertSameJson(recipientDefaults);
+
+        Action values = action();
+        Map<Object, Object> nested = new LinkedHashMap<>();
+        nested.put("null", null);
+        nested.put(1, "number key");
+        values.getContext().setAdditionalProperty("nested", nested);
+        values.getContext().setAdditionalProperty("decimals", List.of(new BigDecimal("1.50"), new BigDecimal("100"), 1.5f, (short) 3));
+        values.getContext().setAdditionalProperty("date", LocalDateTime.of(2022, 1, 1, 0, 0));
+        values.getContext().setAdditionalProperty("list", Arrays.asList(1, null, 2L, 2.5, true, "ünïcödé \"quoted\""));
+        values.getContext().setAdditionalProperty("null", null);
+        values.setTimestamp(LocalDateTime.of(12021, 1, 1, 0, 0, 0, 100));
+        values.setId(null);
+        values.setAccountId(null);
+        assertSameJson(values);
+
+        Action lazy = Parser.decode("{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"x\",\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"1\",\"context\":\"{\\\"a\\\": 1.0}\",\"events\":[{\"payload\":\"{\\\"k\\\": [ 1 ]}\"}]}",
+            ParserOptions.builder().lazyEmbeddedJson(true).build());
+        assertSameJson(lazy);
+    }
+
+    @Test
+    void shouldReportTheSameErrorsAsTheSchema() {
+        Action missing = action();
+        missing.setBundle(null);
+        missing.setApplication(null);
+        missing.setEventType(null);
+        missing.setTimestamp(null);
+        missing.setOrgId(null);
+        missing.setEvents(null);
+        assertSameErrors(missing);
+
+        Action nested = action();
+        List<Event> events = new ArrayList<>(nested.getEvents());
+        events.add(null);
+        events.add(new Event());
+        nested.setEvents(events);
+        Recipient recipient = new Recipient();
+        recipient.setUsers(Arrays.asList("u1", null));
+        recipient.setEmails(List.of("bad", "user@redhat.com"));
+        nested.setRecipients(Arrays.asList(recipient, null));
+        RecipientsAuthorizationCriterion criterion = new RecipientsAuthorizationCriterion();
+        criterion.setType(new Type());
+        nested.setRecipientsAuthorizationCriterion(criterion);
+        assertSameErrors(nested);
+    }
+
+    @Test
+    void shouldNotWriteRejectedActions() {
+        Action action = action();
+        action.setOrgId(null);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertThrows(ParsingException.class, () -> Parser.encodeTo(action, outputStream, STREAMING));
+        assertEquals(0, outputStream.size());
+    }
+
+    private Action action() {
+        return new Action.ActionBuilder()
+            .withId(UUID.fromString("f81d4fae-7dec-11d0-a765-00a0c91e6bf6"))
+            .withBundle("rhel")
+            .withApplication("patch")
+            .withEventType("new-advisory")
+            .withTimestamp(LocalDateTime.of(2022, 7, 5, 8, 47, 39, 806149000))
+            .withAccountId("account-id")
+            .withOrgId("6089719")
+            .withSeverity("Important")
+            .withContext(new Context.ContextBuilder().withAdditionalProperty("inventory_id", "e1e39f6d").build())
+            .withEvents(List.of(
+                new Event.EventBuilder()
+                    .withMetadata(new Metadata.MetadataBuilder().withAdditionalProperty("a", "b").build())
+                    .withPayload(new Payload.PayloadBuilder().withAdditionalProperty("advisory_id", 160818).build())
+                    .build(),
+                new Event.EventBuilder()
+                    .withPayload(new Payload())
+                    .build()))
+            .withRecipients(List.of(new Recipient.RecipientBuilder()
+                .withOnlyAdmins(true)
+                .withUsers(List.of("u1", "u2"))
+                .withEmails(List.of("user@redhat.com"))
+                .build()))
+            .withRecipientsAuthorizationCriterion(new RecipientsAuthorizationCriterion.RecipientsAuthorizationCriterionBuilder()
+                .withId("abc1")
+                .withRelation("rel1")
+                .withType(new Type.TypeBuilder().withName("type_name").withNamespace("type_namespace").build())
+                .build())
+            .build();
+    }
+
+    private void assertSameJson(Action action) {
+        String expected = Parser.encode(action);
+        assertEquals(expected, Parser.encode(action, STREAMING));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Parser.encodeTo(action, outputStream, STREAMING);
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    private void assertSameErrors(Action action) {
+        ParsingException expected = assertThrows(ParsingException.class, () -> Parser.encode(action));
+        ParsingException actual = assertThrows(ParsingException.class, () -> Parser.encode(action, STREAMING));
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    private Set<String> describe(ParsingException exception) {
+        return exception.getValidationMessages().stream()
+            .map(wrapper -> wrapper.getError().getKeyword() + " " + wrapper.getMessage())
+            .collect(Collectors.toSet());
+    }
+}
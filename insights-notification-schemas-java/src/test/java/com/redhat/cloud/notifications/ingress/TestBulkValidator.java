@@ -0,0 +1,79 @@
+package com.redhat.cloud.notifications.ingress;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestBulkValidator {
+
+    private static final String ACTION = "{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\"," +
+        "\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"%d\",\"context\":\"{\\\"a\\\":1}\",\"events\":[{\"payload\":{\"advisory_id\":160818}}]}";
+    private static final String NO_ORG_ID = "{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\"," +
+        "\"timestamp\":\"2022-07-05T08:47:39Z\",\"events\":[{\"payload\":{},\"extra\":true}]}";
+    private static final String MALFORMED = "{\"bundle\":";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldAggregateTheErrorsOfAllTheRecords() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        long firstInvalid = -1;
+        long firstMalformed = -1;
+        for (int i = 0; i < 1000; i++) {
+            if (i % 10 == 3) {
+                firstInvalid = firstInvalid < 0 ? ndjson.length() : firstInvalid;
+                ndjson.append(NO_ORG_ID);
+            } else if (i % 100 == 42) {
+                firstMalformed = firstMalformed < 0 ? ndjson.length() : firstMalformed;
+                ndjson.append(MALFORMED);
+            } else {
+                ndjson.append(String.format(ACTION, i));
+            }
+            ndjson.append(i % 2 == 0 ? "\n" : "\r\n");
+            if (i % 50 == 0) {
+                ndjson.append("  \n");
+            }
+        }
+        Path file = Files.writeString(directory.resolve("actions.ndjson"), ndjson.toString().stripTrailing(), StandardCharsets.UTF_8);
+
+        // The chunks, from a single one to a few lines each, do not change the report.
+        for (int chunkSize : new int[] { BulkValidator.DEFAULT_CHUNK_SIZE, 4096, 1000, 1 }) {
+            ValidationReport report = BulkValidator.builder().chunkSize(chunkSize).build().validate(file);
+            assertEquals(1000, report.getRecords());
+            assertEquals(100, report.getInvalid());
+            assertEquals(10, report.getMalformed());
+            assertEquals(890, report.getValid());
+            assertEquals(firstMalformed, report.getFirstMalformedOffset());
+            assertEquals(Map.of(
+                "required", Map.of("$", 100L),
+                "additionalProperties", Map.of("$.events[0]", 100L)
+            ), report.getErrors());
+            assertEquals(firstInvalid, report.getFirstOffset("required", "$"));
+            assertEquals(-1, report.getFirstOffset("type", "$"));
+        }
+
+        // Failing fast only counts one error per record.
+        ValidationReport failFast = BulkValidator.builder()
+            .options(ParserOptions.builder().failFast(true).stacklessRejections(true).build())
+            .chunkSize(1000)
+            .build()
+            .validate(file);
+        assertEquals(100, failFast.getErrors().values().stream().flatMap(locations -> locations.values().stream()).mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void shouldValidateEmptyFiles() throws Exception {
+        Path file = Files.writeString(directory.resolve("empty.ndjson"), "");
+        assertEquals(0, BulkValidator.builder().build().validate(file).getRecords());
+        assertThrows(UncheckedIOException.class, () -> BulkValidator.builder().build().validate(directory.resolve("missing.ndjson")));
+    }
+}
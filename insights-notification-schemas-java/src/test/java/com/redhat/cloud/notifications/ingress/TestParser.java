@@ -1,22 +1,48 @@
 package com.redhat.cloud.notifications.ingress;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.SpecificationVersion;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestParser {
 
@@ -103,6 +129,60 @@ public class TestParser {
         assertEquals("2.0.0", deserializedAction.getVersion());
     }
 
+    @Test
+    void shouldParseEmbeddedJsonLazily() {
+        String actionJson = "{\"bundle\":\"my-bundle\",\"application\":\"Policies\",\"event_type\":\"Any\",\"timestamp\":\"2021-08-24T16:36:31.806149\",\"org_id\":\"testTenant\",\"context\":\" {\\\"user_id\\\":\\\"123456-7890\\\"} \",\"events\":[{\"payload\":\"{\\\"k2\\\":\\\"v2\\\",\\\"n\\\":[1,2.5]}\"},{\"payload\":{\"k2\":\"b2\"}},{\"payload\":\"{oops}\"}]}";
+        Action eager = Parser.decode(actionJson.replace("{oops}", "{}"));
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).lazyEmbeddedJson(true).build();
+            Action lazy = Parser.decode(actionJson, options);
+
+            LazyPayload payload = (LazyPayload) lazy.getEvents().get(0).getPayload();
+            assertEquals("{\"k2\":\"v2\",\"n\":[1,2.5]}", payload.getJson());
+            assertEquals(eager.getEvents().get(0).getPayload().getAdditionalProperties(), payload.getAdditionalProperties());
+            assertNull(payload.getJson());
+            assertEquals(lazy.getContext(), eager.getContext());
+            assertEquals("b2", lazy.getEvents().get(1).getPayload().getAdditionalProperties().get("k2"));
+            assertThrows(UncheckedIOException.class, () -> lazy.getEvents().get(2).getPayload().getAdditionalProperties());
+
+            // Strings that are not objects are still parsed eagerly and reported by the schema.
+            assertThrows(ParsingException.class, () -> Parser.decode(actionJson.replace("{oops}", "[1]"), options));
+
+            // Equal from either side, without parsing the lazy one first.
+            String wellFormed = actionJson.replace("{oops}", "{}");
+            assertEquals(eager, Parser.decode(wellFormed, options));
+            assertEquals(Parser.decode(wellFormed, options), eager);
+            assertEquals(eager.hashCode(), Parser.decode(wellFormed, options).hashCode());
+        }
+    }
+
+    @Test
+    void shouldParseEmbeddedJsonLazilyFromConcurrentThreads() throws Exception {
+        StringBuilder context = new StringBuilder("{");
+        for (int i = 0; i < 1000; i++) {
+            context.append(i == 0 ? "" : ",").append("\"k").append(i).append("\":").append(i);
+        }
+        context.append('}');
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int run = 0; run < 20; run++) {
+                LazyContext lazy = new LazyContext(context.toString());
+                List<Future<Integer>> sizes = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    sizes.add(executor.submit(() -> lazy.getAdditionalProperties().size()));
+                }
+                for (Future<Integer> size : sizes) {
+                    assertEquals(1000, size.get());
+                }
+                assertNull(lazy.getJson());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     void deserializeWithStringContextAndPayloadAndIdAndRecipientsAuthorizationCriterion() {
         String serializedWithoutRecipients = "{\"id\": \"f81d4fae-7dec-11d0-a765-00a0c91e6bf6\",\"bundle\":\"my-bundle\",\"application\":\"Policies\",\"event_type\":\"Any\",\"timestamp\":\"2021-08-24T16:36:31.806149\",\"org_id\":\"testTenant\",\"severity\":\"None\",\"context\":\"{\\\"user_id\\\":\\\"123456-7890\\\",\\\"user_name\\\":\\\"foobar\\\"}\",\"recipients_authorization_criterion\":{\"id\":\"abc1\",\"relation\":\"rel1\",\"type\":{\"name\":\"type_name\",\"namespace\":\"type_namespace\"}},\"events\":[{\"metadata\":{},\"payload\":\"{\\\"k2\\\":\\\"v2\\\",\\\"k3\\\":\\\"v\\\",\\\"k\\\":\\\"v\\\"}\"},{\"metadata\":{},\"payload\":\"{\\\"k2\\\":\\\"b2\\\",\\\"k3\\\":\\\"b\\\",\\\"k\\\":\\\"b\\\"}\"}]}\n";
@@ -345,6 +425,17 @@ public class TestParser {
         );
     }
 
+    @Test
+    void shouldDescribeInvalidDates() {
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).build();
+            assertEquals("$.timestamp: Text 2020-13-14T13:22:10 could not be parsed: Invalid value for MonthOfYear (valid values 1 - 12): 13",
+                getDateMessage("2020-13-14T13:22:10", options));
+            assertEquals("$.timestamp: Text 2020-02-30T13:22:10 could not be parsed: Invalid date FEBRUARY 30",
+                getDateMessage("2020-02-30T13:22:10", options));
+        }
+    }
+
     @Test
     void shouldAcceptNullAccountIdOnlyIfOrgIdIsSet() {
         assertNotNull(Parser.decode("{\"version\":\"v1.1.0\",\"bundle\":\"rhel\",\"application\":\"myapp\",\"event_type\":\"my-event\",\"timestamp\":\"2022-08-31T12:43:42Z\",\"account_id\":null,\"context\":{\"inventory_id\":\"b512425e-acb0-3360-86d6-c2fbe3676c63\",\"display_name\":\"my-cool-name\",\"host_url\":\"\"},\"events\":[{\"metadata\":{},\"payload\":{\"advisory_id\":2432324,\"advisory_name\":\"ADVISORY-1337\",\"advisory_type\":\"bugfix\",\"synopsis\":\"foobar\"}}],\"org_id\":\"007\"}"));
@@ -1037,6 +1128,46 @@ public class TestParser {
     }
 
 
+    @Test
+    void shouldDecodeAndEncodeUtf8Bytes() {
+        Action action = getValidAction();
+        action.getContext().setAdditionalProperty("name", "Zoë – ünïcödé");
+        String json = Parser.encode(action);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        for (ParserOptions options : List.of(ParserOptions.DEFAULT, ParserOptions.builder().streaming(true).build())) {
+            JsonNode expected = Parser.objectMapper.valueToTree(Parser.decode(json, options));
+            assertEquals(expected, Parser.objectMapper.valueToTree(Parser.decode(bytes, options)));
+            assertEquals(expected, Parser.objectMapper.valueToTree(Parser.decode(new ByteArrayInputStream(bytes), options)));
+
+            ByteBuffer heapBuffer = ByteBuffer.allocate(bytes.length + 4).put(new byte[2]).put(bytes);
+            heapBuffer.position(2).limit(2 + bytes.length);
+            assertEquals(expected, Parser.objectMapper.valueToTree(Parser.decode(heapBuffer.slice(), options)));
+            assertEquals(2, heapBuffer.position());
+
+            ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            assertEquals(expected, Parser.objectMapper.valueToTree(Parser.decode(directBuffer, options)));
+            assertEquals(0, directBuffer.position());
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Parser.encodeTo(action, outputStream);
+        assertArrayEquals(bytes, outputStream.toByteArray());
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 10).put((byte) ' ');
+        assertEquals(bytes.length, Parser.encodeTo(action, buffer));
+        assertEquals(bytes.length + 1, buffer.position());
+        assertEquals(json, new String(buffer.array(), 1, bytes.length, StandardCharsets.UTF_8));
+
+        ByteBuffer smallBuffer = ByteBuffer.allocate(bytes.length - 1);
+        assertThrows(BufferOverflowException.class, () -> Parser.encodeTo(action, smallBuffer));
+        assertEquals(0, smallBuffer.position());
+
+        Action invalid = getValidAction();
+        invalid.setBundle(null);
+        assertThrows(ParsingException.class, () -> Parser.encodeTo(invalid, new ByteArrayOutputStream()));
+    }
+
     private Action getValidAction() {
         return new Action.ActionBuilder()
                 .withAccountId("account-id")
@@ -1087,6 +1218,16 @@ public class TestParser {
         );
     }
 
+    private String getDateMessage(String stringAsDate, ParserOptions options) {
+        String serialized = String.format(
+                "{\"bundle\":\"my-bundle\",\"application\":\"Policies\",\"event_type\":\"Any\",\"timestamp\":\"%s\",\"org_id\":\"testTenant\",\"context\":{},\"events\":[]}\n",
+                stringAsDate
+        );
+        ParsingException exception = assertThrows(ParsingException.class, () -> Parser.decode(serialized, options));
+        assertEquals(1, exception.getValidationMessages().size());
+        return exception.getValidationMessages().iterator().next().getMessage();
+    }
+
     private Optional<Integer> getInteger(String string) {
         try {
             return Optional.of(Integer.parseInt(string));
@@ -1168,4 +1309,369 @@ public class TestParser {
 
     }
 
+    @Test
+    void shouldDecodeAndEncodeBatchesRecordByRecord() {
+        Action action = getValidAction();
+        Action invalidAction = getValidAction();
+        invalidAction.setBundle(null);
+
+        List<BatchResult<byte[]>> encoded = Parser.encodeBatch(List.of(action, invalidAction, action));
+        assertEquals(3, encoded.size());
+        assertArrayEquals(Parser.encode(action).getBytes(StandardCharsets.UTF_8), encoded.get(0).get());
+        assertInstanceOf(ParsingException.class, encoded.get(1).getError());
+        assertNull(encoded.get(1).getValue());
+        assertArrayEquals(encoded.get(0).getValue(), encoded.get(2).getValue());
+
+        List<byte[]> records = List.of(encoded.get(0).getValue(), "{\"bundle\":".getBytes(StandardCharsets.UTF_8), "{}".getBytes(StandardCharsets.UTF_8));
+        for (ParserOptions options : List.of(ParserOptions.DEFAULT, ParserOptions.builder().streaming(true).build())) {
+            List<BatchResult<Action>> decoded = Parser.decodeBatch(records, options);
+            assertEquals(3, decoded.size());
+            assertTrue(decoded.get(0).isSuccess());
+            assertEquals(Parser.objectMapper.valueToTree(Parser.decode(records.get(0))), Parser.objectMapper.valueToTree(decoded.get(0).get()));
+            assertInstanceOf(UncheckedIOException.class, decoded.get(1).getError());
+            assertThrows(ParsingException.class, decoded.get(2)::get);
+        }
+    }
+
+    @Test
+    void shouldDecodeBatchesInParallelInOrder() throws Exception {
+        List<byte[]> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Action action = getValidAction();
+            action.setEventType("event-" + i);
+            records.add(i % 7 == 0 ? "{}".getBytes(StandardCharsets.UTF_8) : Parser.encode(action).getBytes(StandardCharsets.UTF_8));
+        }
+
+        ParserOptions options = ParserOptions.builder().streaming(true).maxInFlight(3).build();
+        List<BatchResult<Action>> sequential = Parser.decodeBatch(records, options);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (List<BatchResult<Action>> parallel : List.of(Parser.decodeBatch(records, options, executor), Parser.decodeBatchInParallel(records, options))) {
+                assertEquals(records.size(), parallel.size());
+                for (int i = 0; i < records.size(); i++) {
+                    assertEquals(sequential.get(i).isSuccess(), parallel.get(i).isSuccess());
+                    if (parallel.get(i).isSuccess()) {
+                        assertEquals("event-" + i, parallel.get(i).get().getEventType());
+                    }
+                }
+            }
+
+            // The records are only queued, so the batch stops submitting once 3 of them are in flight.
+            BlockingQueue<Runnable> submitted = new LinkedBlockingQueue<>();
+            Future<List<BatchResult<Action>>> batch = executor.submit(() -> Parser.decodeBatch(records, options, submitted::add));
+            List<Runnable> inFlight = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                inFlight.add(submitted.poll(10, TimeUnit.SECONDS));
+            }
+            assertNull(submitted.poll(100, TimeUnit.MILLISECONDS));
+            inFlight.forEach(Runnable::run);
+            while (!batch.isDone()) {
+                Runnable task = submitted.poll(10, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    task.run();
+                }
+            }
+            assertEquals(records.size(), batch.get().size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldKeepUnexpectedFailuresWithinTheirRecord() {
+        List<byte[]> records = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Action action = getValidAction();
+            action.setEventType(i == 5 ? "event-poisoned" : "event-" + i);
+            records.add(Parser.encode(action).getBytes(StandardCharsets.UTF_8));
+        }
+        long poisoned = records.get(5).length;
+
+        // A metrics implementation failing on a single record.
+        Parser.setMetrics(new ParserMetrics() {
+            @Override
+            public void recordBytesIn(long bytes) {
+                if (bytes == poisoned) {
+                    throw new IllegalStateException("Metrics failure");
+                }
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (boolean streaming : new boolean[] { false, true }) {
+                ParserOptions options = ParserOptions.builder().streaming(streaming).build();
+                for (List<BatchResult<Action>> results : List.of(Parser.decodeBatch(records, options), Parser.decodeBatch(records, options, executor))) {
+                    assertEquals(records.size(), results.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        assertEquals(i != 5, results.get(i).isSuccess());
+                    }
+                    assertInstanceOf(IllegalStateException.class, results.get(5).getError());
+                }
+            }
+        } finally {
+            executor.shutdown();
+            Parser.setMetrics(ParserMetrics.NOOP);
+        }
+    }
+
+    @Test
+    void shouldReportMetrics() {
+        LongAdderParserMetrics metrics = new LongAdderParserMetrics();
+        Parser.setMetrics(metrics);
+        try {
+            String json = Parser.encode(getValidAction());
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            Parser.decode(bytes);
+            Parser.decode(bytes, ParserOptions.builder().streaming(true).build());
+            assertThrows(ParsingException.class, () -> Parser.decode("{\"bundle\":1}"));
+
+            assertEquals(3, metrics.getStageCount(ParserMetrics.Stage.READ));
+            assertEquals(2, metrics.getStageCount(ParserMetrics.Stage.EMBEDDED_JSON));
+            assertEquals(3, metrics.getStageCount(ParserMetrics.Stage.VALIDATE));
+            assertEquals(2, metrics.getStageCount(ParserMetrics.Stage.BIND));
+            assertEquals(1, metrics.getStageCount(ParserMetrics.Stage.WRITE));
+            assertTrue(metrics.getStageNanos(ParserMetrics.Stage.VALIDATE) > 0);
+            assertEquals(json.length(), metrics.getBytesOut());
+            assertEquals(2L * bytes.length, metrics.getBytesIn());
+            assertEquals(3L * getValidAction().getEvents().size(), metrics.getEvents());
+            assertEquals(1, metrics.getValidationFailures("type", "$.bundle"));
+            assertEquals(5, metrics.getValidationFailures().get("required").get("$"));
+
+            // The failures of every element of an array share a single counter.
+            StringBuilder recipients = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                recipients.append(i == 0 ? "" : ",").append("{\"emails\":[\"user@redhat.com\",\"not-an-email\"]}");
+            }
+            String invalidEmails = "{\"bundle\":\"rhel\",\"application\":\"app\",\"event_type\":\"type\",\"timestamp\":\"2022-08-31T12:43:42Z\"," +
+                "\"org_id\":\"1\",\"events\":[],\"recipients\":[" + recipients + "]}";
+            assertThrows(ParsingException.class, () -> Parser.decode(invalidEmails));
+            assertEquals(Map.of("$.recipients[*].emails[*]", 1000L), metrics.getValidationFailures().get("format"));
+            assertEquals(1000, metrics.getValidationFailures("format", "$.recipients[999].emails[1]"));
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            Parser.encodeTo(getValidAction(), outputStream, ParserOptions.builder().streaming(true).build());
+            assertEquals(json.length() + outputStream.size(), metrics.getBytesOut());
+        } finally {
+            Parser.setMetrics(ParserMetrics.NOOP);
+        }
+    }
+
+    @Test
+    void shouldRejectWithoutStackTraces() {
+        String json = "{\"bundle\":1,\"application\":\"app\",\"event_type\":\"type\",\"timestamp\":\"2022-08-31T12:43:42Z\",\"org_id\":\"1\",\"events\":[{}]}";
+        ParsingException withStackTrace = assertThrows(ParsingException.class, () -> Parser.decode(json));
+        assertTrue(withStackTrace.getStackTrace().length > 0);
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).stacklessRejections(true).build();
+            ParsingException stackless = assertThrows(ParsingException.class, () -> Parser.decode(json, options));
+            assertEquals(0, stackless.getStackTrace().length);
+            assertEquals(withStackTrace.getValidationMessages(), stackless.getValidationMessages());
+            assertEquals(Set.copyOf(withStackTrace.getErrorCodes()), Set.copyOf(stackless.getErrorCodes()));
+
+            Action action = getValidAction();
+            action.setOrgId(null);
+            ParsingException encode = assertThrows(ParsingException.class, () -> Parser.encode(action, options));
+            assertEquals(0, encode.getStackTrace().length);
+            assertEquals("Validation failed: required property 'org_id' not found", encode.getMessage());
+        }
+
+        List<String> codes = withStackTrace.getErrorCodes().stream().map(ParsingException.ErrorCode::toString).sorted().collect(Collectors.toList());
+        assertEquals(List.of("required $.events[0]", "type $.bundle"), codes);
+        assertTrue(withStackTrace.getMessage().startsWith("Validation failed: "));
+        assertTrue(withStackTrace.getMessage().contains("$.bundle: integer found, string expected"));
+    }
+
+    @Test
+    void shouldStopAtTheFirstErrorWhenFailingFast() throws JsonProcessingException {
+        String json = "{\"bundle\":1,\"application\":2,\"event_type\":\"type\",\"timestamp\":\"2022-08-31T12:43:42Z\",\"org_id\":\"1\",\"events\":[{}]}";
+        assertEquals(3, assertThrows(ParsingException.class, () -> Parser.decode(json)).getErrorCodes().size());
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).failFast(true).build();
+            assertEquals(1, assertThrows(ParsingException.class, () -> Parser.decode(json, options)).getErrorCodes().size());
+
+            Action action = getValidAction();
+            action.setBundle(null);
+            action.setOrgId(null);
+            assertEquals(2, assertThrows(ParsingException.class, () -> Parser.encode(action)).getErrorCodes().size());
+            assertEquals(1, assertThrows(ParsingException.class, () -> Parser.encode(action, options)).getErrorCodes().size());
+        }
+
+        // Schemas other than the bundled ones are walked, with the same behavior.
+        Schema schema = SchemaRegistry.withDefaultDialect(SpecificationVersion.DRAFT_7)
+            .getSchema("{\"type\":\"object\",\"required\":[\"a\",\"b\",\"c\"]}");
+        JsonNode empty = objectMapper.readTree("{}");
+        assertEquals(3, assertThrows(ParsingException.class, () -> Parser.validate(empty, schema)).getErrorCodes().size());
+        ParserOptions failFast = ParserOptions.builder().failFast(true).build();
+        assertEquals(1, assertThrows(ParsingException.class, () -> Parser.validate(empty, schema, failFast)).getErrorCodes().size());
+    }
+
+    @Test
+    void shouldRejectActionsExceedingTheLimits() {
+        String json = Parser.encode(getValidAction());
+        String embedded = "{\"bundle\":\"rhel\",\"application\":\"policies\",\"event_type\":\"policy-triggered\"," +
+            "\"timestamp\":\"2022-08-31T12:43:42\",\"org_id\":\"1\",\"context\":\"{\\\"a\\\":\\\"0123456789\\\"}\"," +
+            "\"events\":[{\"payload\":{\"b\":\"0123456789\"}},{\"payload\":{}}]," +
+            "\"recipients\":[{\"users\":[\"u1\",\"u2\"],\"emails\":[\"a@redhat.com\"]},{}]}";
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions.Builder builder = ParserOptions.builder().streaming(streaming);
+
+            assertDoesNotThrow(() -> Parser.decode(embedded, builder.limits(ParserLimits.builder().maxBytes(embedded.length())
+                .maxDepth(4).maxEvents(2).maxEmbeddedJsonBytes(24).maxRecipients(2).maxUsers(2).maxEmails(1).build()).build()));
+
+            assertLimitExceeded(json, builder.limits(ParserLimits.builder().maxBytes(json.length() - 1).build()).build());
+            assertLimitExceeded(embedded, builder.limits(ParserLimits.builder().maxDepth(3).build()).build());
+            assertLimitExceeded(embedded, builder.limits(ParserLimits.builder().maxEvents(1).build()).build());
+            assertLimitExceeded(embedded, builder.limits(ParserLimits.builder().maxRecipients(1).build()).build());
+            assertLimitExceeded(embedded, builder.limits(ParserLimits.builder().maxUsers(1).build()).build());
+            assertLimitExceeded(embedded, builder.limits(ParserLimits.builder().maxEmails(0).build()).build());
+            // The payload object is 18 bytes, and the context string 24 with its quotes and escapes.
+            assertLimitExceeded(embedded, builder.limits(ParserLimits.builder().maxEmbeddedJsonBytes(23).build()).build());
+            assertLimitExceeded(embedded.replace("\"context\":\"{\\\"a\\\":\\\"0123456789\\\"}\"", "\"context\":\"{}\""),
+                builder.limits(ParserLimits.builder().maxEmbeddedJsonBytes(17).build()).build());
+
+            // The sizes are in characters for a String, and in bytes for UTF-8 json.
+            String accented = embedded.replace("0123456789", "\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9");
+            ParserOptions accentedLimits = builder.limits(ParserLimits.builder().maxEmbeddedJsonBytes(24).build()).build();
+            assertDoesNotThrow(() -> Parser.decode(accented, accentedLimits));
+            UncheckedIOException tooLarge = assertThrows(UncheckedIOException.class, () -> Parser.decode(accented.getBytes(StandardCharsets.UTF_8), accentedLimits));
+            assertInstanceOf(StreamConstraintsException.class, tooLarge.getCause());
+
+            // Inputs of unknown size are checked as they are read.
+            ParserOptions options = builder.limits(ParserLimits.builder().maxBytes(100).build()).build();
+            UncheckedIOException exception = assertThrows(UncheckedIOException.class,
+                () -> Parser.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), options));
+            assertInstanceOf(StreamConstraintsException.class, exception.getCause());
+        }
+    }
+
+    private void assertLimitExceeded(String json, ParserOptions options) {
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class, () -> Parser.decode(json, options));
+        assertInstanceOf(StreamConstraintsException.class, exception.getCause());
+        exception = assertThrows(UncheckedIOException.class, () -> Parser.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), options));
+        assertInstanceOf(StreamConstraintsException.class, exception.getCause());
+    }
+
+    @Test
+    void shouldPeekTheRoutingFields() {
+        Action action = getValidAction();
+        action.setId(UUID.randomUUID());
+        action.setSeverity("IMPORTANT");
+        String json = Parser.encode(action);
+        ActionHeader expected = new ActionHeader(action.getBundle(), action.getApplication(), action.getEventType(),
+            action.getOrgId(), action.getId().toString(), "IMPORTANT");
+
+        assertEquals(expected, Parser.peek(json));
+        assertEquals(expected, Parser.peek(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expected, Parser.peek(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8))));
+
+        // Once all the fields are found, the rest is not even read.
+        String routingFirst = "{\"severity\":\"LOW\",\"events\":[{\"payload\":{\"id\":\"nested\"}}],\"org_id\":\"1\",\"id\":\"abc\"," +
+            "\"event_type\":\"type\",\"application\":\"app\",\"bundle\":\"bundle\",\"recipients\":[{";
+        assertEquals(new ActionHeader("bundle", "app", "type", "1", "abc", "LOW"), Parser.peek(routingFirst));
+        assertThrows(UncheckedIOException.class, () -> Parser.decode(routingFirst));
+
+        assertEquals(new ActionHeader("rhel", null, null, null, null, null), Parser.peek("{\"bundle\":\"rhel\",\"org_id\":1,\"id\":{}}"));
+        assertThrows(UncheckedIOException.class, () -> Parser.peek("[]"));
+        assertThrows(UncheckedIOException.class, () -> Parser.peek("{\"bundle\":"));
+    }
+
+    @Test
+    void shouldShareRepeatedHeaderValues() {
+        byte[] json = Parser.encode(getValidAction()).getBytes(StandardCharsets.UTF_8);
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            ParserOptions options = ParserOptions.builder().streaming(streaming).stringTable(new StringTable(64)).build();
+            Action first = Parser.decode(json, options);
+            Action second = Parser.decode(json, options);
+            assertSame(first.getBundle(), second.getBundle());
+            assertSame(first.getApplication(), second.getApplication());
+            assertSame(first.getEventType(), second.getEventType());
+            assertSame(first.getOrgId(), second.getOrgId());
+            assertSame(first.getSeverity(), second.getSeverity());
+            assertSame(first.getVersion(), second.getVersion());
+            assertEquals(Parser.decode(json).getBundle(), second.getBundle());
+
+            Action unshared = Parser.decode(json, ParserOptions.builder().streaming(streaming).build());
+            assertNotSame(first.getBundle(), unshared.getBundle());
+        }
+
+        // A value taking the slot of another evicts it, values above the max length are never kept.
+        StringTable table = new StringTable(1, 4);
+        assertEquals(1, table.getCapacity());
+        String rhel = table.canonicalize(new String("rhel"));
+        assertSame(rhel, table.canonicalize("rhel".toCharArray(), 0, 4));
+        assertSame(rhel, table.canonicalize("xrhelx".toCharArray(), 1, 4));
+        String ansible = table.canonicalize(new String("ansi"));
+        assertNotSame(rhel, table.canonicalize(new String("rhel")));
+        assertNotSame(ansible, table.canonicalize("ansi".toCharArray(), 0, 4));
+        String longer = new String("openshift");
+        assertSame(longer, table.canonicalize(longer));
+        assertNotSame(longer, table.canonicalize(new String("openshift")));
+        assertNull(table.canonicalize(null));
+        assertEquals(8, new StringTable(5).getCapacity());
+    }
+
+    @Test
+    void shouldApplyTheDefaultsSeparatelyFromTheValidation() throws JsonProcessingException {
+        String json = "{\"version\":null,\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\"," +
+            "\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"456\",\"context\":null,\"events\":[{\"payload\":{},\"metadata\":null}]," +
+            "\"recipients\":[{\"users\":null,\"only_admins\":null}]}";
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            Action action = Parser.decode(json, ParserOptions.builder().streaming(streaming).build());
+            assertEquals(Schemas.CURRENT_VERSION, action.getVersion());
+            assertNotNull(action.getContext());
+            assertNotNull(action.getEvents().get(0).getMetadata());
+            assertEquals(List.of(), action.getRecipients().get(0).getUsers());
+            assertEquals(Boolean.FALSE, action.getRecipients().get(0).getOnlyAdmins());
+
+            Action asSent = Parser.decode(json, ParserOptions.builder().streaming(streaming).applyDefaults(false).build());
+            assertNull(asSent.getVersion());
+            assertNull(asSent.getContext());
+            assertNull(asSent.getEvents().get(0).getMetadata());
+            assertNull(asSent.getRecipients().get(0).getUsers());
+            assertNull(asSent.getRecipients().get(0).getOnlyAdmins());
+            // Missing properties are left as the generated classes initialize them.
+            assertEquals(List.of(), asSent.getRecipients().get(0).getGroups());
+        }
+
+        JsonNode node = Parser.objectMapper.readTree(json);
+        Parser.validate(node, Schemas.get(Schemas.ACTION), ParserOptions.builder().applyDefaults(false).build());
+        assertEquals(Parser.objectMapper.readTree(json), node);
+        Parser.validate(node, Schemas.get(Schemas.ACTION), ParserOptions.DEFAULT);
+        assertEquals(Schemas.CURRENT_VERSION, node.get("version").textValue());
+        assertEquals(Parser.objectMapper.createObjectNode(), node.get("context"));
+    }
+
+    @Test
+    void shouldCompactTheRecipients() {
+        String json = "{\"bundle\":\"rhel\",\"application\":\"patch\",\"event_type\":\"new-advisory\"," +
+            "\"timestamp\":\"2022-07-05T08:47:39Z\",\"org_id\":\"456\",\"events\":[{\"payload\":{}}],\"recipients\":[" +
+            "{\"users\":[\"u1\",\"u2\",\"u1\"],\"emails\":[\"a@redhat.com\"]}," +
+            "{\"groups\":[\"g1\"],\"users\":[\"u2\"]}," +
+            "{\"users\":[\"u3\",\"u2\"],\"emails\":[\"a@redhat.com\",\"b@redhat.com\"]}," +
+            "{\"users\":[\"u4\"],\"only_admins\":true}," +
+            "{\"users\":[\"u2\"],\"groups\":[\"g1\",\"g1\"]}," +
+            "{}, {\"groups\":[]}]}";
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            Action action = Parser.decode(json, ParserOptions.builder().streaming(streaming).compactRecipients(true).build());
+            List<Recipient> recipients = action.getRecipients();
+            assertEquals(4, recipients.size());
+            assertEquals(List.of("u1", "u2", "u3"), recipients.get(0).getUsers());
+            assertEquals(List.of("a@redhat.com", "b@redhat.com"), recipients.get(0).getEmails());
+            assertEquals(List.of("u2"), recipients.get(1).getUsers());
+            assertEquals(List.of("g1"), recipients.get(1).getGroups());
+            assertEquals(List.of("u4"), recipients.get(2).getUsers());
+            assertEquals(Boolean.TRUE, recipients.get(2).getOnlyAdmins());
+            assertEquals(List.of(), recipients.get(3).getUsers());
+            assertSame(recipients.get(0).getUsers().get(1), recipients.get(1).getUsers().get(0));
+            assertThrows(UnsupportedOperationException.class, () -> recipients.get(0).getUsers().add("u5"));
+
+            assertEquals(7, Parser.decode(json, ParserOptions.builder().streaming(streaming).build()).getRecipients().size());
+        }
+    }
 }
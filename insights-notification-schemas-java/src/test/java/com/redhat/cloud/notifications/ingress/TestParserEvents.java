@@ -0,0 +1,113 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.networknt.schema.SchemaException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestParserEvents {
+
+    @Test
+    void shouldRecordEventsWhenEnabled() throws Exception {
+        String json = Parser.encode(action());
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        Path dump = Files.createTempFile("parser", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.redhat.cloud.notifications.Decode");
+            recording.enable("com.redhat.cloud.notifications.Encode");
+            recording.enable("com.redhat.cloud.notifications.Validate");
+            recording.enable("com.redhat.cloud.notifications.SchemaCompile");
+            recording.start();
+
+            Parser.decode(bytes);
+            Parser.decode(bytes, ParserOptions.builder().streaming(true).build());
+            assertThrows(ParsingException.class, () -> Parser.decode("{\"bundle\":\"rhel\"}"));
+            Parser.encodeTo(action(), new ByteArrayOutputStream(), ParserOptions.builder().streaming(true).build());
+            assertThrows(SchemaException.class, () -> Schemas.get(Schemas.ACTION, "0.0.0"));
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events;
+        try {
+            events = RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.delete(dump);
+        }
+
+        List<RecordedEvent> decodes = named(events, "com.redhat.cloud.notifications.Decode");
+        assertEquals(3, decodes.size());
+        assertEquals(List.of("success", "success", "invalid"), decodes.stream().map(event -> event.getString("outcome")).collect(Collectors.toList()));
+        assertEquals(bytes.length, decodes.get(0).getLong("size"));
+        assertEquals(bytes.length, decodes.get(1).getLong("size"));
+        assertEquals("rhel", decodes.get(0).getString("bundle"));
+        assertEquals("patch", decodes.get(1).getString("application"));
+        assertEquals("new-advisory", decodes.get(1).getString("eventType"));
+        assertEquals(1, decodes.get(1).getInt("events"));
+
+        List<RecordedEvent> encodes = named(events, "com.redhat.cloud.notifications.Encode");
+        assertEquals(1, encodes.size());
+        assertEquals(bytes.length, encodes.get(0).getLong("size"));
+
+        // The tree decodes validate, the streaming ones do not go through a tree.
+        List<RecordedEvent> validates = named(events, "com.redhat.cloud.notifications.Validate");
+        assertEquals(List.of("success", "invalid"), validates.stream().map(event -> event.getString("outcome")).collect(Collectors.toList()));
+        assertTrue(validates.get(0).getString("schema").contains(Schemas.ACTION), validates.get(0).getString("schema"));
+
+        List<RecordedEvent> compiles = named(events, "com.redhat.cloud.notifications.SchemaCompile");
+        assertEquals(1, compiles.size());
+        assertEquals("0.0.0", compiles.get(0).getString("version"));
+        assertEquals("failure", compiles.get(0).getString("outcome"));
+    }
+
+    @Test
+    void shouldNotCreateEventsWhenDisabled() {
+        assertNull(DecodeEvent.start());
+        assertNull(EncodeEvent.start());
+        assertNull(ValidateEvent.start());
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.redhat.cloud.notifications.Decode");
+            recording.start();
+
+            assertNotNull(DecodeEvent.start());
+            assertNull(EncodeEvent.start());
+        }
+        assertNull(DecodeEvent.start());
+    }
+
+    private List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(name))
+            .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+            .collect(Collectors.toList());
+    }
+
+    private Action action() {
+        return new Action.ActionBuilder()
+            .withBundle("rhel")
+            .withApplication("patch")
+            .withEventType("new-advisory")
+            .withTimestamp(LocalDateTime.of(2022, 7, 5, 8, 47, 39))
+            .withOrgId("6089719")
+            .withEvents(List.of(new Event.EventBuilder().withPayload(new Payload()).build()))
+            .build();
+    }
+}
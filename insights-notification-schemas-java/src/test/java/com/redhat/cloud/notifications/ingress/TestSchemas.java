@@ -0,0 +1,24 @@
+package com.redhat.cloud.notifications.ingress;
+
+import com.networknt.schema.SchemaException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestSchemas {
+
+    @Test
+    void shouldCompileEachSchemaOnce() {
+        assertSame(Schemas.get(Schemas.ACTION), Schemas.get(Schemas.ACTION));
+        assertSame(Schemas.get(Schemas.ACTION_OUT), Schemas.get(Schemas.ACTION_OUT, Schemas.CURRENT_VERSION));
+        assertNotSame(Schemas.get(Schemas.ACTION), Schemas.get(Schemas.ACTION_OUT));
+    }
+
+    @Test
+    void shouldFailOnUnknownSchemas() {
+        assertThrows(SchemaException.class, () -> Schemas.get("/schemas/Unknown.json"));
+        assertThrows(SchemaException.class, () -> Schemas.get(Schemas.ACTION, "0.0.1"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.redhat.cloud.notifications.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestIsoDateTime {
+
+    private static final List<String> SAMPLES = List.of(
+        "2020-07-14T13:22:10.133",
+        "2020-07-14T13:22:10",
+        "2020-07-14T13:22",
+        "2020-07-14t13:22:10",
+        "2020-07-14T13:22:10Z",
+        "2020-07-14T13:22:10z",
+        "2020-07-14T13:22Z",
+        "2020-07-14T13:22:10.123456789Z",
+        "2020-07-14T13:22:10.1234567890",
+        "2020-07-14T13:22:10.",
+        "2020-07-14T13:22:10.+01:00",
+        "2011-12-03T10:15:30+01:00[Europe/Paris]",
+        "2011-12-03T10:15:30[Europe/Paris]",
+        "2011-12-03T10:15:30+01:00",
+        "2011-12-03T10:15:30-05:30",
+        "2011-12-03T10:15:30+00:00",
+        "2011-12-03T10:15:30-00:00",
+        "2011-12-03T10:15:30+01:00:30",
+        "2011-12-03T10:15:30+18:00",
+        "2011-12-03T10:15:30+18:01",
+        "2011-12-03T10:15:30+19:00",
+        "2011-12-03T10:15:30+0100",
+        "2011-12-03T10:15:30+01",
+        "2011-12-03T10:15:30+01:60",
+        "2011-12-03T10:15:30+01:00:",
+        "2011-12-03T10:15:30 ",
+        "2011-12-03T10:15:60",
+        "2011-12-03T10:60:30",
+        "2011-12-03T24:00:00",
+        "2011-12-03T23:59:59.999999999",
+        "2011-12-03T10:15:3",
+        "2011-12-03T10:15:",
+        "2011-12-03T10:1",
+        "2011-12-03T",
+        "2011-12-03 10:15:30",
+        "2020-02-29T00:00:00",
+        "2021-02-29T00:00:00",
+        "1900-02-29T00:00:00",
+        "2000-02-29T00:00:00",
+        "2021-04-31T00:00:00",
+        "2021-13-01T00:00:00",
+        "2021-00-01T00:00:00",
+        "2021-01-00T00:00:00",
+        "2021-1-01T00:00:00",
+        "0000-01-01T00:00:00",
+        "+2021-01-01T00:00:00",
+        "-2021-01-01T00:00:00",
+        "+12021-01-01T00:00:00",
+        "12021-01-01T00:00:00",
+        "2007-W44-6T16:18:05Z",
+        "Tomorrow",
+        "As soon as possible!!",
+        "2020-07-14",
+        "22:10:10",
+        "",
+        "2"
+    );
+
+    @Test
+    void shouldAgreeWithJavaTime() {
+        for (String sample : SAMPLES) {
+            assertAgrees(sample);
+        }
+    }
+
+    @Test
+    void shouldAgreeWithJavaTimeOnMutatedDates() {
+        Random random = new Random(42);
+        String alphabet = "0123456789-:T.Z+z[] ";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder sample = new StringBuilder(SAMPLES.get(random.nextInt(20)));
+            int mutations = 1 + random.nextInt(2);
+            for (int j = 0; j < mutations && sample.length() > 0; j++) {
+                int position = random.nextInt(sample.length());
+                switch (random.nextInt(3)) {
+                    case 0:
+                        sample.setCharAt(position, alphabet.charAt(random.nextInt(alphabet.length())));
+                        break;
+                    case 1:
+                        sample.deleteCharAt(position);
+                        break;
+                    default:
+                        sample.insert(position, alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            assertAgrees(sample.toString());
+        }
+    }
+
+    @Test
+    void shouldCheckCharacterRanges() {
+        char[] chars = "[\"2020-07-14T13:22:10Z\"]".toCharArray();
+        assertEquals(IsoDateTime.VALID, IsoDateTime.check(chars, 2, 20));
+        assertEquals(20, IsoDateTime.check(chars, 2, 21));
+        assertEquals(10, IsoDateTime.check(chars, 2, 10));
+    }
+
+    @Test
+    void shouldParseCharacterRangesToUtc() {
+        char[] chars = "[\"2020-12-31T23:22:10.5-01:00\"]".toCharArray();
+        assertEquals(LocalDateTime.of(2021, 1, 1, 0, 22, 10, 500_000_000), IsoDateTime.parseUtc(chars, 2, 27));
+        assertNull(IsoDateTime.parseUtc(chars, 2, 28));
+        assertNull(IsoDateTime.parseUtc("2011-12-03T10:15:30+01:00[Europe/Paris]"));
+    }
+
+    @Test
+    void shouldFormatLikeJavaTime() {
+        Random random = new Random(42);
+        int[] nanos = { 0, 1, 10, 100_000, 1_000_000, 120_000_000, 500_000_000, 999_999_999 };
+        char[] buffer = new char[IsoDateTime.MAX_FORMATTED_LENGTH + 2];
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = LocalDateTime.of(random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(60), i % 2 == 0 ? nanos[i / 2 % nanos.length] : random.nextInt(1_000_000_000));
+            int length = IsoDateTime.format(dateTime, buffer, 2);
+            assertEquals(dateTime.format(DateTimeFormatter.ISO_DATE_TIME), new String(buffer, 2, length));
+        }
+
+        assertEquals(IsoDateTime.UNSUPPORTED, IsoDateTime.format(LocalDateTime.of(10_000, 1, 1, 0, 0), buffer, 0));
+        assertEquals(IsoDateTime.UNSUPPORTED, IsoDateTime.format(LocalDateTime.of(-1, 1, 1, 0, 0), buffer, 0));
+    }
+
+    private void assertAgrees(String sample) {
+        int result = IsoDateTime.check(sample);
+        if (result == IsoDateTime.UNSUPPORTED) {
+            return;
+        }
+
+        assertEquals(isValidForJavaTime(sample), result == IsoDateTime.VALID, sample);
+        if (result == IsoDateTime.VALID) {
+            assertEquals(parseWithJavaTime(sample), IsoDateTime.parseUtc(sample), sample);
+        } else {
+            assertNull(IsoDateTime.parseUtc(sample), sample);
+        }
+    }
+
+    private LocalDateTime parseWithJavaTime(String text) {
+        TemporalAccessor temporalAccessor = DateTimeFormatter.ISO_DATE_TIME.withZone(ZoneOffset.UTC).parse(text);
+        return OffsetDateTime.from(temporalAccessor).atZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    private boolean isValidForJavaTime(String text) {
+        try {
+            DateTimeFormatter.ISO_DATE_TIME.parse(text);
+            return true;
+        } catch (DateTimeParseException exception) {
+            return false;
+        }
+    }
+}
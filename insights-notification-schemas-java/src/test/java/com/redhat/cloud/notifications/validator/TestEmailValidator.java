@@ -0,0 +1,83 @@
+package com.redhat.cloud.notifications.validator;
+
+import com.networknt.schema.format.EmailFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestEmailValidator {
+
+    private static final List<String> ADDRESSES = List.of(
+        "user@redhat.com", "first.last@redhat.com", "o'brien+tag@mail.redhat.com", "a!#$%&*+-/=?^_`{|}~@example.org",
+        "user@localhost", "user@[127.0.0.1]", "user@[IPv6:2001:db8::1]", "user@[300.0.0.1]", "user@com", "user@.com",
+        "user@redhat.com.", "user@red_hat.com", "user@-redhat.com", "user@redhat.invalidtld", "user@xn--bcher-kva.example",
+        "user@bücher.example", "üser@redhat.com", "\"quoted user\"@redhat.com", "\"a\\\"b\"@redhat.com", "a\\@b@redhat.com",
+        "a\\ b@redhat.com", ".user@redhat.com", "user.@redhat.com", "us..er@redhat.com", "us er@redhat.com", "us,er@redhat.com",
+        "user@red hat.com", "user@redhat.com ", " user@redhat.com", "user\n@redhat.com", "user@redhat.com\n", "user@@redhat.com",
+        "a@b@redhat.com", "user@", "@redhat.com", "@", "", "user", "user@redhat.com@", "a@b@", "\"a@b\"@redhat.com",
+        "user @redhat.com", "user@redhat.com ", "user\u007f@redhat.com", "x".repeat(64) + "@redhat.com",
+        "x".repeat(65) + "@redhat.com", "user@" + "a".repeat(64) + ".com", "user@" + "a.".repeat(130) + "com",
+        "user@" + "a".repeat(63) + ".com", "user@" + "a".repeat(63), "user@" + "a".repeat(64), "user@" + "a.".repeat(124) + "com",
+        "user@" + "a.".repeat(125) + "com", "USER@REDHAT.COM", "user@RedHat.Com", "user@redhat.c0m", "user@1redhat.com", "user@redhat.123",
+        "user@red-hat.com", "user@redhat-.com", "user@redhat.com-", "user@redhat.-com", "user@redhat..com", "user@xn--p1ai",
+        "user@mail.xn--p1ai", "user@localhost.localdomain", "user@host.localhost", "user@.", "user@-", "user@a", "user@1",
+        "user@[IPv6:::1]", "user@[::1]", "user@[1.2.3.4]x", "user@redhat\uff0ecom", "user@redhat.\u0441om", "user@redhat.com\u0001"
+    );
+
+    private static final String ALPHABET = "ab.@\"\\ ,'+-_üx[]: \t1C";
+
+    private final EmailFormat emailFormat = new EmailFormat();
+
+    @Test
+    void shouldMatchLikeTheNetworkntFormat() {
+        for (EmailValidator validator : List.of(new EmailValidator(), new EmailValidator(0), new EmailValidator(1))) {
+            for (int pass = 0; pass < 2; pass++) {
+                // The second pass hits the cache.
+                for (String address : ADDRESSES) {
+                    assertEquals(emailFormat.matches(null, address), validator.matches(address), address);
+                }
+            }
+
+            Random random = new Random(42);
+            for (int i = 0; i < 20000; i++) {
+                String address = mutate(ADDRESSES.get(random.nextInt(ADDRESSES.size())), random);
+                assertEquals(emailFormat.matches(null, address), validator.matches(address), address);
+            }
+        }
+
+        assertFalse(new EmailValidator().matches(null));
+        assertTrue(new EmailValidator().matches("user@redhat.com"));
+    }
+
+    @Test
+    void shouldRejectInvalidCacheSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new EmailValidator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new EmailValidator((1 << 30) + 1));
+    }
+
+    // Replaces, removes or inserts one or two characters.
+    private String mutate(String address, Random random) {
+        StringBuilder mutated = new StringBuilder(address);
+        int mutations = 1 + random.nextInt(2);
+        for (int i = 0; i < mutations; i++) {
+            int index = mutated.length() == 0 ? 0 : random.nextInt(mutated.length());
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            int operation = mutated.length() == 0 ? 2 : random.nextInt(3);
+            if (operation == 0) {
+                mutated.setCharAt(index, c);
+            } else if (operation == 1) {
+                mutated.deleteCharAt(index);
+            } else {
+                mutated.insert(index, c);
+            }
+        }
+
+        return mutated.toString();
+    }
+}
@@ -2,7 +2,18 @@ package com.redhat.cloud.notifications.validator;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestLocalDateTimeValidator {
@@ -34,4 +45,60 @@ public class TestLocalDateTimeValidator {
         assertTrue(validator.matches("2011-12-03T10:15:30+00:00"));
     }
 
+    @Test
+    void shouldDescribeEachMismatch() {
+        LocalDateTimeValidator validator = new LocalDateTimeValidator();
+
+        assertNull(validator.mismatch("2020-07-14T13:22:10Z"));
+        assertEquals("Text '2020-13-14T13:22:10' could not be parsed: Invalid value for MonthOfYear (valid values 1 - 12): 13",
+            validator.mismatch("2020-13-14T13:22:10"));
+        assertEquals("Text '2020-02-30T13:22:10' could not be parsed: Invalid date 'FEBRUARY 30'", validator.mismatch("2020-02-30T13:22:10"));
+        assertEquals("Text '2020-07-14T1a:22' could not be parsed at index 11", validator.mismatch("2020-07-14T1a:22"));
+        assertEquals("Text '2020-07-14T13:22:10X' could not be parsed, unparsed text found at index 19", validator.mismatch("2020-07-14T13:22:10X"));
+        assertEquals("Text 'Tomorrow' could not be parsed at index 0", validator.mismatch("Tomorrow"));
+        assertNotNull(validator.mismatch("2011-12-03T10:15:30+01:00[Nowhere/Land]"));
+    }
+
+    @Test
+    void shouldDescribeEachMismatchLikeJavaTime() {
+        LocalDateTimeValidator validator = new LocalDateTimeValidator();
+        List<String> samples = List.of(
+            "2020-00-14T13:22", "2020-07-00T13:22", "2020-07-32T13:22", "2020-04-31T13:22", "2019-02-29T13:22", "2100-02-29T13:22",
+            "2020-07-14T24:00", "2020-07-14T23:60", "2020-07-14T23:59:60", "2020-07-14T24:60:60", "2020-07-14T24:00:60",
+            "2020-13-32T24:60", "2020-02-30T25:00", "2020-07-14T23:59:60.5Z", "2020-07-14T23:59:60X", "2020-13-14T13:22X",
+            "2020-13-14T13", "20a0-07-14T13:22", "202", "", "2020-7-14T13:22", "2020-07-14", "2020-07-14x13:22", "2020-07-14T13:2",
+            "2020-07-14T13:22:6X", "2020-07-14T13:22:10Zx", "2020-07-14T13:22+19:00", "2020-07-14T13:22+01", "2020-07-14T13:22:10.X"
+        );
+        for (String sample : samples) {
+            assertEquals(javaTimeMismatch(sample), validator.mismatch(sample), sample);
+        }
+    }
+
+    @Test
+    void shouldBeSafeToShareBetweenThreads() throws Exception {
+        LocalDateTimeValidator validator = new LocalDateTimeValidator();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String invalid = "2020-07-" + (40 + i) + "T13:22:10";
+                results.add(executor.submit(() -> validator.mismatch(invalid).contains(invalid) && validator.matches("2020-07-14T13:22:10")));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String javaTimeMismatch(String text) {
+        try {
+            DateTimeFormatter.ISO_DATE_TIME.parse(text);
+            return null;
+        } catch (DateTimeParseException exception) {
+            return exception.getMessage();
+        }
+    }
+
 }